@@ -0,0 +1,64 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.auditing.CurrentDateTimeProvider;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.mapping.context.PersistentEntities;
+import study.datajpa.entity.AuditListener;
+import study.datajpa.entity.Member;
+import study.datajpa.support.CachingAuditorAware;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기존 감사 경로(AuditingEntityListener 가 쓰는 AuditingHandler + 매번 UUID.randomUUID())와
+ * AuditListener + 캐시된 감사자 + AuditClock 경로의 엔티티 한 건당 비용 비교.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuditingBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private AuditingHandler auditingHandler;
+    private AuditListener auditListener;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("auditing");
+        // 애플리케이션은 @EnableJpaAuditing 을 쓰지 않으므로 비교 대상 핸들러는 여기서 만든다
+        auditingHandler = new AuditingHandler(PersistentEntities.of(context.getBean(JpaMetamodelMappingContext.class)));
+        auditingHandler.setAuditorAware(() -> Optional.of(UUID.randomUUID().toString()));
+        auditingHandler.setDateTimeProvider(CurrentDateTimeProvider.INSTANCE);
+        auditListener = new AuditListener(new CachingAuditorAware());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Member auditingEntityListener() {
+        return auditingHandler.markCreated(new Member("bench", 10));
+    }
+
+    @Benchmark
+    public Member auditListener() {
+        Member member = new Member("bench", 10);
+        auditListener.prePersist(member);
+        return member;
+    }
+}
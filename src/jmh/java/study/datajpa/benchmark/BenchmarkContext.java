@@ -0,0 +1,102 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberBulkWriter;
+import study.datajpa.repository.TeamJpaRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * 벤치마크용 스프링 컨텍스트. 내장 H2(메모리)에 붙고 p6spy 와 SQL 로그는 끈다.
+ */
+final class BenchmarkContext {
+
+    static final int TEAMS = 10;
+    static final int MEMBERS = 2_000;
+    static final int AGES = 20;
+
+    private static final String DATASOURCE_URL = "spring.datasource.url";
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String name, String... extraProperties) {
+        return start(name, WebApplicationType.NONE, new String[0], extraProperties);
+    }
+
+    /**
+     * extraProperties 는 "key=value" 형식이며 같은 키의 기본값을 덮어쓴다.
+     * application.yml 보다 우선하도록 커맨드라인 인자로 넘긴다.
+     * DB 는 메모리 H2 로 바꾸되, 프로필 URL 의 ';' 뒤 설정(QUERY_CACHE_SIZE 등)은 그대로 붙인다.
+     */
+    static ConfigurableApplicationContext start(String name, WebApplicationType webType, String[] profiles,
+                                                String... extraProperties) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("decorator.datasource.enabled", "false");
+        properties.put("logging.level.org.hibernate.SQL", "warn");
+        properties.put("logging.level.org.hibernate.type", "warn");
+        for (String property : extraProperties) {
+            int separator = property.indexOf('=');
+            properties.put(property.substring(0, separator), property.substring(separator + 1));
+        }
+
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(webType)
+                .profiles(profiles);
+        if (!properties.containsKey(DATASOURCE_URL)) {
+            builder.listeners(event -> {
+                if (event instanceof ApplicationEnvironmentPreparedEvent) {
+                    useMemoryDatabase(((ApplicationEnvironmentPreparedEvent) event).getEnvironment(), name);
+                }
+            });
+        }
+        return builder.run(args);
+    }
+
+    /**
+     * 프로필 yml 까지 읽힌 뒤에 불리므로 여기서 본 URL 이 실제로 쓰였을 URL 이다.
+     */
+    private static void useMemoryDatabase(ConfigurableEnvironment environment, String name) {
+        String url = environment.getProperty(DATASOURCE_URL, "");
+        int settings = url.indexOf(';');
+        String memoryUrl = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1" + (settings < 0 ? "" : url.substring(settings));
+        environment.getPropertySources().addFirst(
+                new MapPropertySource("benchmarkDataSource", Map.of(DATASOURCE_URL, memoryUrl)));
+    }
+
+    /**
+     * 팀 TEAMS 개, 회원 MEMBERS 명(나이는 0 ~ AGES-1 반복)을 넣는다.
+     */
+    static void seed(ConfigurableApplicationContext context) {
+        TeamJpaRepository teamJpaRepository = context.getBean(TeamJpaRepository.class);
+        MemberBulkWriter memberBulkWriter = context.getBean(MemberBulkWriter.class);
+        TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+
+        List<Team> teams = tx.execute(status -> {
+            List<Team> saved = new ArrayList<>();
+            for (int i = 0; i < TEAMS; i++) {
+                saved.add(teamJpaRepository.save(new Team("team" + i)));
+            }
+            return saved;
+        });
+
+        memberBulkWriter.saveAll(IntStream.range(0, MEMBERS)
+                .mapToObj(i -> Member.forBulkInsert(String.format("member%05d", i), i % AGES, teams.get(i % TEAMS))));
+    }
+}
@@ -0,0 +1,99 @@
+package study.datajpa.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 API 부하 테스트. 프로필마다 앱을 띄워 같은 부하를 주고 지연 시간 분포와 커넥션 대기 시간을 비교한다.
+ * ./gradlew loadTest -Pprofiles=default,prod -Pconcurrency=32 -Prequests=20000
+ */
+public class MemberEndpointLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        List<String> profiles = Arrays.asList(args.length > 0 ? args[0].split(",") : new String[]{"default", "prod"});
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        for (String profile : profiles) {
+            run(profile, concurrency, requests);
+        }
+    }
+
+    private static void run(String profile, int concurrency, int requests) throws Exception {
+        String[] activeProfiles = "default".equals(profile) ? new String[0] : new String[]{profile};
+        ConfigurableApplicationContext context = BenchmarkContext.start("load_" + profile,
+                WebApplicationType.SERVLET, activeProfiles,
+                "server.port=0",
+                "decorator.datasource.enabled=" + !"prod".equals(profile));
+        try {
+            BenchmarkContext.seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(concurrency)).build();
+
+            fire(client, port, concurrency, requests / 10); // 워밍업
+            long[] latencies = fire(client, port, concurrency, requests);
+
+            Arrays.sort(latencies);
+            Timer acquire = context.getBean(MeterRegistry.class).find("hikaricp.connections.acquire").timer();
+            System.out.printf("[%s] requests=%d p50=%dus p95=%dus p99=%dus max=%dus, hikari acquire max=%.3fms%n",
+                    profile, requests,
+                    micros(latencies, 0.50), micros(latencies, 0.95), micros(latencies, 0.99),
+                    TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length - 1]),
+                    acquire == null ? 0 : acquire.max(TimeUnit.MILLISECONDS));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static long[] fire(HttpClient client, int port, int concurrency, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            Future<?>[] futures = new Future<?>[requests];
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                futures[i] = workers.submit(() -> {
+                    long start = System.nanoTime();
+                    client.send(HttpRequest.newBuilder(URI.create(nextUri(port))).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    latencies[index] = System.nanoTime() - start;
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdown();
+        }
+        return latencies;
+    }
+
+    private static String nextUri(int port) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) {
+            return "http://localhost:" + port + "/members/" + (1 + random.nextInt(BenchmarkContext.MEMBERS));
+        }
+        return "http://localhost:" + port + "/members?age=" + random.nextInt(BenchmarkContext.AGES)
+                + "&page=" + random.nextInt(5);
+    }
+
+    private static long micros(long[] sorted, double percentile) {
+        return TimeUnit.NANOSECONDS.toMicros(sorted[(int) Math.ceil(percentile * sorted.length) - 1]);
+    }
+}
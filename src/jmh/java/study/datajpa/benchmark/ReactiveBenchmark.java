@@ -0,0 +1,102 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.AsyncMemberRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.ReactiveMemberRepository;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 요청이 fanOut 건의 회원 단건 조회를 동시에 내보내는 상황에서 JPA 경로와 R2DBC 경로 비교.
+ * JPA 는 repositoryExecutor(커넥션 풀 크기 스레드)에서 hikari 풀로, R2DBC 는 r2dbc-pool 로 커넥션을 재사용한다.
+ * r2dbc-h2 는 구독한 스레드에서 동기로 실행되므로 이 비교는 드라이버 I/O 모델보다 경로별 오버헤드를 본다.
+ * 반복이 끝날 때 JVM 최대 스레드 수를 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReactiveBenchmark {
+
+    @Param({"10", "100"})
+    private int fanOut;
+
+    private ConfigurableApplicationContext context;
+    private AsyncMemberRepository asyncMemberRepository;
+    private ReactiveMemberRepository reactiveMemberRepository;
+    private ThreadMXBean threads;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("reactive", "datajpa.r2dbc.enabled=true");
+        BenchmarkContext.seed(context);
+        asyncMemberRepository = context.getBean(AsyncMemberRepository.class);
+        reactiveMemberRepository = context.getBean(ReactiveMemberRepository.class);
+        threads = ManagementFactory.getThreadMXBean();
+
+        ids = context.getBean(MemberRepository.class)
+                .findAll(PageRequest.of(0, fanOut, Sort.by("id")))
+                .stream()
+                .mapToLong(Member::getId)
+                .toArray();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakThreads() {
+        threads.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportThreads() {
+        System.out.printf("%npeak threads = %d, live threads = %d%n",
+                threads.getPeakThreadCount(), threads.getThreadCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Optional<Member>> jpaFanOut() {
+        List<CompletableFuture<Optional<Member>>> futures = new ArrayList<>(fanOut);
+        for (long id : ids) {
+            futures.add(asyncMemberRepository.findById(id));
+        }
+        List<Optional<Member>> result = new ArrayList<>(fanOut);
+        for (CompletableFuture<Optional<Member>> future : futures) {
+            result.add(future.join());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<MemberDto> r2dbcFanOut() {
+        return Flux.range(0, fanOut)
+                .flatMap(i -> reactiveMemberRepository.findById(ids[i]))
+                .collectList()
+                .block();
+    }
+}
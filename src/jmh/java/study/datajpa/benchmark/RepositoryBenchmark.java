@@ -0,0 +1,135 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 순수 JPA 저장소(MemberJpaRepository)와 스프링 데이터 저장소(MemberRepository)의 주요 경로 비교.
+ * 쓰기 벤치마크는 롤백해서 데이터가 변하지 않게 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+
+    private static final int AGE = 10;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 4; // 나이별 100명 -> 마지막 페이지
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberJpaRepository memberJpaRepository;
+    private TransactionTemplate tx;
+    private Long memberId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 두 페이징 경로가 매번 실제 count 쿼리를 실행하도록 CountCache 를 끈다
+        context = BenchmarkContext.start("repository", "datajpa.count-cache.enabled=false");
+        BenchmarkContext.seed(context);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        tx = context.getBean(TransactionTemplate.class);
+        memberId = memberRepository.findMemberByUsername("member00100").getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Member saveJpaRepository() {
+        return tx.execute(status -> {
+            status.setRollbackOnly();
+            Member member = memberJpaRepository.save(new Member("bench", AGE));
+            status.flush();
+            return member;
+        });
+    }
+
+    @Benchmark
+    public Member saveSpringData() {
+        return tx.execute(status -> {
+            status.setRollbackOnly();
+            Member member = memberRepository.save(new Member("bench", AGE));
+            status.flush();
+            return member;
+        });
+    }
+
+    @Benchmark
+    public Member findJpaRepository() {
+        return tx.execute(status -> memberJpaRepository.find(memberId));
+    }
+
+    @Benchmark
+    public Member findSpringData() {
+        return memberRepository.findById(memberId).orElseThrow();
+    }
+
+    @Benchmark
+    public List<Member> pageFindByPage() {
+        return tx.execute(status -> {
+            memberJpaRepository.totalCountByAge(AGE);
+            return memberJpaRepository.findByPage(AGE, DEEP_PAGE * PAGE_SIZE, PAGE_SIZE);
+        });
+    }
+
+    @Benchmark
+    public Page<Member> pageFindByAge() {
+        return memberRepository.findByAge(AGE, PageRequest.of(DEEP_PAGE, PAGE_SIZE, Sort.by("username")));
+    }
+
+    @Benchmark
+    public int fetchJoin() {
+        return tx.execute(status -> touchTeams(memberRepository.findMemberFetchJoin()));
+    }
+
+    @Benchmark
+    public int entityGraph() {
+        return tx.execute(status -> touchTeams(memberRepository.findMemberEntityGraph()));
+    }
+
+    @Benchmark
+    public int bulkAgePlusJpaRepository() {
+        return tx.execute(status -> {
+            status.setRollbackOnly();
+            return memberJpaRepository.bulkAgePlusGreaterAndEqualThanAge(AGE);
+        });
+    }
+
+    @Benchmark
+    public int bulkAgePlusSpringData() {
+        return tx.execute(status -> {
+            status.setRollbackOnly();
+            return memberRepository.bulkAgePlus(AGE);
+        });
+    }
+
+    private static int touchTeams(List<Member> members) {
+        int length = 0;
+        for (Member member : members) {
+            length += member.getTeam().getName().length();
+        }
+        return length;
+    }
+}
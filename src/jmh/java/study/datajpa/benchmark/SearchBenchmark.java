@@ -0,0 +1,97 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 검색: 값을 바인딩하는 Specification 검색(search) 과 값을 문자열로 이어 붙인 JPQL 비교.
+ * 값을 이어 붙이면 username 마다 JPQL 이 달라 플랜 캐시가 적중하지 않고 (기본 2048 개를 넘으면 밀려난다) 매번 HQL 파싱을 한다.
+ * 반복이 끝날 때 플랜 캐시 적중률을 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 20, Sort.by("age"));
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private EntityManagerFactory emf;
+    private TransactionTemplate tx;
+    private Statistics statistics;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("search");
+        BenchmarkContext.seed(context);
+        memberRepository = context.getBean(MemberRepository.class);
+        emf = context.getBean(EntityManagerFactory.class);
+        tx = context.getBean(TransactionTemplate.class);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportPlanCache() {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        System.out.printf("%nquery plan cache hit rate = %.3f (hits = %d, misses = %d)%n",
+                hits + misses == 0 ? 0 : (double) hits / (hits + misses), hits, misses);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Member> canonicalSearch() {
+        int value = sequence++;
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(String.format("member%05d", value % BenchmarkContext.MEMBERS));
+        condition.setAgeGoe(value / BenchmarkContext.MEMBERS % BenchmarkContext.AGES);
+        return tx.execute(status -> memberRepository.search(condition, PAGE));
+    }
+
+    @Benchmark
+    public List<Member> literalJpql() {
+        int value = sequence++;
+        return tx.execute(status -> {
+            EntityManager em = context.getBean(EntityManager.class);
+            return em.createQuery("select m from Member as m left join fetch m.team as t" +
+                    " where m.username = '" + String.format("member%05d", value % BenchmarkContext.MEMBERS) + "'" +
+                    " and m.age >= " + value / BenchmarkContext.MEMBERS % BenchmarkContext.AGES +
+                    " order by m.age asc, m.id asc", Member.class)
+                    .setMaxResults(PAGE.getPageSize())
+                    .getResultList();
+        });
+    }
+}
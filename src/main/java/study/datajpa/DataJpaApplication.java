@@ -2,25 +2,14 @@ package study.datajpa;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.data.domain.AuditorAware;
-import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
-
-import java.util.Optional;
-import java.util.UUID;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
-@EnableJpaAuditing
+@EnableCaching
 public class DataJpaApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(DataJpaApplication.class, args);
     }
 
-    @Bean
-    public AuditorAware<String> auditorProvider() {
-        // 실제로는 시큐리티컨텍스트홀더나 세션에서 유저의 정보를 돌려줘야함.
-        return () -> Optional.of(UUID.randomUUID().toString());
-    }
-
 }
@@ -0,0 +1,60 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 2차 캐시 영역별 적중/실패/적재/제거 건수. 영역 크기와 TTL 을 정할 때 본다.
+ * 제거(eviction) 건수는 하이버네이트 통계에 없으므로 JCache 통계 MBean 에서 읽는다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class CacheStatisticsController {
+
+    private final EntityManagerFactory emf;
+
+    @GetMapping("/admin/cache-stats")
+    public Map<String, Map<String, Long>> cacheStats() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Long> evictions = evictionsByCache();
+
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            Map<String, Long> stats = new LinkedHashMap<>();
+            stats.put("hits", regionStatistics.getHitCount());
+            stats.put("misses", regionStatistics.getMissCount());
+            stats.put("puts", regionStatistics.getPutCount());
+            stats.put("elements", regionStatistics.getElementCountInMemory());
+            stats.put("evictions", evictions.getOrDefault(region, 0L));
+            result.put(region, stats);
+        }
+        return result;
+    }
+
+    private Map<String, Long> evictionsByCache() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Map<String, Long> evictions = new HashMap<>();
+        try {
+            for (ObjectName name : server.queryNames(new ObjectName("javax.cache:type=CacheStatistics,*"), null)) {
+                evictions.put(name.getKeyProperty("Cache"), (Long) server.getAttribute(name, "CacheEvictions"));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("JCache 통계를 읽을 수 없습니다.", e);
+        }
+        return evictions;
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.service.MemberQueryService;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberController {
+
+    private final MemberQueryService memberQueryService;
+
+    @GetMapping("/members/{id}")
+    public ResponseEntity<MemberDto> findMember(@PathVariable("id") Long id) {
+        return ResponseEntity.of(memberQueryService.findById(id));
+    }
+
+    @GetMapping("/members")
+    public Page<MemberDto> findMembers(@RequestParam("age") int age,
+                                       @PageableDefault(size = 20, sort = "username") Pageable pageable) {
+        return memberQueryService.findPageByAge(age, pageable);
+    }
+}
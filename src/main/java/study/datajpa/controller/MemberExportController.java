@@ -0,0 +1,47 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.datajpa.service.MemberExportService;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private final MemberExportService memberExportService;
+
+    @GetMapping(value = "/members/export.csv", produces = "text/csv")
+    public StreamingResponseBody exportCsv(@RequestParam(defaultValue = "500") int fetchSize) {
+        checkFetchSize(fetchSize);
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            memberExportService.exportCsv(writer, fetchSize);
+        };
+    }
+
+    @GetMapping(value = "/members/export.ndjson", produces = "application/x-ndjson")
+    public StreamingResponseBody exportNdjson(@RequestParam(defaultValue = "500") int fetchSize) {
+        checkFetchSize(fetchSize);
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            memberExportService.exportNdjson(writer, fetchSize);
+        };
+    }
+
+    // 스트리밍이 시작되면 상태 코드를 바꿀 수 없으므로 응답을 열기 전에 막는다
+    private static void checkFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fetchSize 는 1 이상이어야 합니다. fetchSize = " + fetchSize);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.TeamDto;
+import study.datajpa.repository.ReactiveMemberRepository;
+import study.datajpa.repository.ReactiveTeamRepository;
+
+/**
+ * R2DBC 조회 엔드포인트. 스프링 MVC 가 Mono/Flux 를 비동기 응답으로 처리한다.
+ * 다만 r2dbc-h2 는 구독한 스레드에서 쿼리를 동기로 실행하므로, H2 에서는 요청 스레드가 DB 를 기다린다.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.r2dbc.enabled", havingValue = "true")
+public class ReactiveMemberController {
+
+    private final ReactiveMemberRepository reactiveMemberRepository;
+    private final ReactiveTeamRepository reactiveTeamRepository;
+
+    @GetMapping("/reactive/members/{id}")
+    public Mono<MemberDto> findMember(@PathVariable("id") long id) {
+        return reactiveMemberRepository.findById(id);
+    }
+
+    @GetMapping("/reactive/members")
+    public Flux<MemberDto> findMembers(@RequestParam("age") int age) {
+        return reactiveMemberRepository.findByAge(age);
+    }
+
+    // 줄 단위 JSON 으로 흘려보낸다. 클라이언트가 느리면 DB 에서 더 당겨오지 않는다
+    @GetMapping(value = "/reactive/members/stream", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public Flux<MemberDto> streamMembers() {
+        return reactiveMemberRepository.streamAll();
+    }
+
+    @GetMapping("/reactive/teams/{id}")
+    public Mono<TeamDto> findTeam(@PathVariable("id") long id) {
+        return reactiveTeamRepository.findById(id);
+    }
+}
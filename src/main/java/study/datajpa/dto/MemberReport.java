@@ -0,0 +1,30 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * 회원 전체를 한 번 훑어 만든 집계 리포트. 팀이 없는 회원은 membersByTeam 대신 unassigned 로 센다.
+ * membersByTeam 은 팀 id 로 센다. 팀 이름은 teamNames 에서 찾는다.
+ */
+@Getter
+@ToString
+public class MemberReport {
+
+    private final long total;
+    private final long unassigned;
+    private final Map<Long, Long> membersByTeam;
+    private final Map<Long, String> teamNames;
+    private final Map<Integer, Long> ageHistogram;
+
+    public MemberReport(long total, long unassigned, Map<Long, Long> membersByTeam, Map<Long, String> teamNames,
+                        Map<Integer, Long> ageHistogram) {
+        this.total = total;
+        this.unassigned = unassigned;
+        this.membersByTeam = membersByTeam;
+        this.teamNames = teamNames;
+        this.ageHistogram = ageHistogram;
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 회원 검색 조건. null 인 조건은 적용하지 않는다.
+ */
+@Getter
+@Setter
+@ToString
+public class MemberSearchCondition {
+
+    private String username;
+    private String teamName;
+    private Integer ageGoe;
+    private Integer ageLoe;
+}
@@ -0,0 +1,14 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+@Getter
+public class TeamDto {
+    private Long id;
+    private String name;
+
+    public TeamDto(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+}
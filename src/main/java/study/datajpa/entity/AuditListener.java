@@ -0,0 +1,38 @@
+package study.datajpa.entity;
+
+import org.springframework.data.domain.AuditorAware;
+import study.datajpa.support.AuditClock;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import java.time.LocalDateTime;
+
+/**
+ * AuditingEntityListener 대신 쓰는 감사 리스너.
+ * 엔티티 메타데이터를 리플렉션으로 찾지 않고 BaseTimeEntity/BaseEntity 필드를 직접 채운다.
+ */
+public class AuditListener {
+
+    private final AuditorAware<String> auditorAware;
+
+    public AuditListener(AuditorAware<String> auditorAware) {
+        this.auditorAware = auditorAware;
+    }
+
+    @PrePersist
+    public void prePersist(BaseTimeEntity entity) {
+        LocalDateTime now = AuditClock.now();
+        entity.markCreated(now);
+        if (entity instanceof BaseEntity) {
+            ((BaseEntity) entity).markCreatedBy(auditorAware.getCurrentAuditor().orElse(null));
+        }
+    }
+
+    @PreUpdate
+    public void preUpdate(BaseTimeEntity entity) {
+        entity.markModified(AuditClock.now());
+        if (entity instanceof BaseEntity) {
+            ((BaseEntity) entity).markModifiedBy(auditorAware.getCurrentAuditor().orElse(null));
+        }
+    }
+}
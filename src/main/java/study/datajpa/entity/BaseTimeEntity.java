@@ -3,14 +3,13 @@ package study.datajpa.entity;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
 
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners(AuditListener.class)
 @MappedSuperclass @Getter
 public class BaseTimeEntity {
 
@@ -20,4 +19,13 @@ public class BaseTimeEntity {
 
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
+
+    void markCreated(LocalDateTime now) {
+        createdDate = now;
+        lastModifiedDate = now;
+    }
+
+    void markModified(LocalDateTime now) {
+        lastModifiedDate = now;
+    }
 }
@@ -1,10 +1,20 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_username_age", columnList = "username, age"),
+        @Index(name = "idx_member_age_username", columnList = "age, username"),
+        @Index(name = "idx_member_team_age", columnList = "team_id, age")
+})
+@EntityListeners(MemberChangeListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Team.members 컬렉션 캐시가 id 만 담으므로 회원도 캐시해야 N+1 이 안 생긴다
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -12,12 +22,17 @@ import javax.persistence.*;
 public class Member extends BaseEntity{
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
     private String username;
     private int age;
 
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
@@ -39,9 +54,29 @@ public class Member extends BaseEntity{
         }
     }
 
+    /**
+     * 대량 적재용. 연관관계의 주인(team_id)만 채우고 Team.members 에는 넣지 않는다.
+     * 배치마다 clear 되어 준영속이 된 팀의 (이미 로딩된) 컬렉션에 적재한 회원이 전부 쌓이는 것을 막는다.
+     */
+    public static Member forBulkInsert(String username, int age, Team team) {
+        Member member = new Member(username, age);
+        member.team = team;
+        return member;
+    }
+
 
+    /**
+     * 연관관계의 주인(team_id)만 확실히 바꾸고, 역방향 Team.members 는 이미 로딩된 경우에만 맞춘다.
+     * 아직 로딩되지 않은 팀 컬렉션은 초기화하지 않는다. (Team#addMember, Team#removeMember)
+     */
     public void changeTeam(Team team) {
+        Team previous = this.team;
         this.team = team;
-        team.getMembers().add(this);
+        if (previous != null && previous != team && Hibernate.isInitialized(previous)) {
+            previous.removeMember(this);
+        }
+        if (team != null) {
+            team.addMember(this);
+        }
     }
 }
@@ -0,0 +1,35 @@
+package study.datajpa.entity;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostUpdate;
+import javax.persistence.PrePersist;
+import javax.persistence.PreRemove;
+
+/**
+ * 엔티티 콜백을 스프링 이벤트로 바꿔 캐시 같은 부가 기능이 엔티티를 몰라도 되게 한다.
+ * 하이버네이트가 SpringBeanContainer 로 생성하므로 생성자 주입을 받을 수 있다.
+ */
+public class MemberChangeListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public MemberChangeListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PrePersist
+    public void onCreate(Member member) {
+        publisher.publishEvent(new MemberChangedEvent(MemberChangedEvent.Type.CREATED, member));
+    }
+
+    @PostUpdate
+    public void onUpdate(Member member) {
+        publisher.publishEvent(new MemberChangedEvent(MemberChangedEvent.Type.UPDATED, member));
+    }
+
+    @PreRemove
+    public void onDelete(Member member) {
+        publisher.publishEvent(new MemberChangedEvent(MemberChangedEvent.Type.DELETED, member));
+    }
+}
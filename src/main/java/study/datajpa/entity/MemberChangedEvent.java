@@ -0,0 +1,29 @@
+package study.datajpa.entity;
+
+import lombok.Getter;
+
+/**
+ * 회원이 저장/수정/삭제되었을 때 발행되는 이벤트.
+ * 벌크 연산처럼 어떤 회원이 바뀌었는지 알 수 없으면 member 가 null 이다.
+ */
+@Getter
+public class MemberChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED, BULK }
+
+    private final Type type;
+    private final Member member;
+
+    public MemberChangedEvent(Type type, Member member) {
+        this.type = type;
+        this.member = member;
+    }
+
+    public static MemberChangedEvent bulk() {
+        return new MemberChangedEvent(Type.BULK, null);
+    }
+
+    public boolean isBulk() {
+        return type == Type.BULK;
+    }
+}
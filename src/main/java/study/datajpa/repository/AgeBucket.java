@@ -0,0 +1,9 @@
+package study.datajpa.repository;
+
+/**
+ * 10살 단위 나이 구간 프로젝션. ageFrom 이 20 이면 20~29살.
+ */
+public interface AgeBucket {
+    Integer getAgeFrom();
+    Long getMemberCount();
+}
@@ -0,0 +1,66 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.support.BoundedExecutor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link MemberRepository} 조회 메서드의 비동기 버전. 요청 스레드 대신 repositoryExecutor 에서 실행한다.
+ * 결과 엔티티는 준영속 상태이므로 지연 로딩이 필요하면 fetch join / DTO 조회를 쓴다.
+ * 실행기가 가득 차 있으면 기다리지 않고 RejectedExecutionException 으로 실패한 future 를 돌려준다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AsyncMemberRepository {
+
+    private final MemberRepository memberRepository;
+    private final BoundedExecutor repositoryExecutor;
+
+    public CompletableFuture<Optional<Member>> findById(Long id) {
+        return repositoryExecutor.supply(() -> memberRepository.findById(id));
+    }
+
+    public CompletableFuture<Member> findMemberByUsername(String username) {
+        return repositoryExecutor.supply(() -> memberRepository.findMemberByUsername(username));
+    }
+
+    public CompletableFuture<Optional<Member>> findOptionalMemberByUsername(String username) {
+        return repositoryExecutor.supply(() -> memberRepository.findOptionalMemberByUsername(username));
+    }
+
+    public CompletableFuture<List<Member>> findListByUsername(String username) {
+        return repositoryExecutor.supply(() -> memberRepository.findListByUsername(username));
+    }
+
+    public CompletableFuture<List<Member>> findByNames(List<String> names) {
+        return repositoryExecutor.supply(() -> memberRepository.findByNames(names));
+    }
+
+    public CompletableFuture<List<String>> findUsernameList() {
+        return repositoryExecutor.supply(memberRepository::findUsernameList);
+    }
+
+    public CompletableFuture<List<MemberDto>> findMemberDto() {
+        return repositoryExecutor.supply(memberRepository::findMemberDto);
+    }
+
+    public CompletableFuture<Page<Member>> findByAge(int age, Pageable pageable) {
+        return repositoryExecutor.supply(() -> memberRepository.findByAge(age, pageable));
+    }
+
+    public CompletableFuture<Page<MemberDto>> findDtoByAge(int age, Pageable pageable) {
+        return repositoryExecutor.supply(() -> memberRepository.findDtoByAge(age, pageable));
+    }
+
+    public CompletableFuture<List<Member>> findMemberFetchJoin() {
+        return repositoryExecutor.supply(memberRepository::findMemberFetchJoin);
+    }
+}
@@ -0,0 +1,29 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Team;
+import study.datajpa.support.BoundedExecutor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link TeamRepository} 조회 메서드의 비동기 버전.
+ */
+@Component
+@RequiredArgsConstructor
+public class AsyncTeamRepository {
+
+    private final TeamRepository teamRepository;
+    private final BoundedExecutor repositoryExecutor;
+
+    public CompletableFuture<Optional<Team>> findById(Long id) {
+        return repositoryExecutor.supply(() -> teamRepository.findById(id));
+    }
+
+    public CompletableFuture<List<Team>> findAll() {
+        return repositoryExecutor.supply(teamRepository::findAll);
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.MemberChangedEvent;
+
+/**
+ * 벌크 JPQL 은 엔티티 콜백을 거치지 않으므로 실행 후 직접 변경 이벤트를 발행한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class BulkUpdateEventAspect {
+
+    private final ApplicationEventPublisher publisher;
+
+    @AfterReturning("execution(* study.datajpa.repository.MemberRepository.bulkAgePlus(..))" +
+            " || execution(* study.datajpa.repository.MemberJpaRepository.bulkAgePlusGreaterAndEqualThanAge(..))")
+    public void publishBulkChange() {
+        publisher.publishEvent(MemberChangedEvent.bulk());
+    }
+}
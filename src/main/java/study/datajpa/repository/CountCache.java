@@ -0,0 +1,97 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.MemberChangedEvent;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이징 total count 캐시. 쿼리 이름 + 파라미터를 키로 최대 maxSize 개를 ttl 동안 보관한다.
+ * 회원이 바뀌면 바로 한 번, 트랜잭션이 끝나면(커밋이든 롤백이든) 한 번 더 비운다.
+ * 쓰기 트랜잭션 안에서 센 값은 커밋 전 행이 섞여 있을 수 있으므로 캐시에 넣지 않는다.
+ */
+@Component
+public class CountCache {
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<List<Object>, Entry> entries;
+
+    public CountCache(@Value("${datajpa.count-cache.enabled:true}") boolean enabled,
+                      @Value("${datajpa.count-cache.max-size:1000}") int maxSize,
+                      @Value("${datajpa.count-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<List<Object>, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public long get(String query, LongSupplier counter, Object... params) {
+        if (!enabled) {
+            return counter.getAsLong();
+        }
+
+        List<Object> key = Arrays.asList(query, Arrays.asList(params));
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.createdAt < ttlNanos) {
+                return entry.count;
+            }
+        }
+
+        long count = counter.getAsLong();
+        if (inReadWriteTransaction()) {
+            return count;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry(count, now));
+        }
+        return count;
+    }
+
+    public void invalidate() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterMemberChangeCompleted(MemberChangedEvent event) {
+        invalidate();
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static class Entry {
+        private final long count;
+        private final long createdAt;
+
+        private Entry(long count, long createdAt) {
+            this.count = count;
+            this.createdAt = createdAt;
+        }
+    }
+}
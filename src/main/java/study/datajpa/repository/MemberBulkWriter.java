@@ -0,0 +1,46 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 대량 적재용 저장소.
+ * JDBC 배치 크기마다 flush/clear 해서 INSERT 를 배치로 묶고 영속성 컨텍스트가 커지지 않게 한다.
+ * clear 가 일어나므로 같은 트랜잭션에서 미리 조회해 둔 엔티티는 준영속 상태가 된다.
+ * 팀이 있는 회원은 Member.forBulkInsert 로 만들어 넘긴다. (역방향 Team.members 에 쌓이지 않도록)
+ */
+@Repository
+public class MemberBulkWriter {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    @Transactional
+    public BulkWriteResult saveAll(Stream<Member> members) {
+        long start = System.nanoTime();
+        long rows = 0;
+
+        Iterator<Member> iterator = members.iterator();
+        while (iterator.hasNext()) {
+            em.persist(iterator.next());
+            if (++rows % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+
+        return new BulkWriteResult(rows, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,52 @@
+package study.datajpa.repository;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.support.CacheNames;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+/**
+ * username -> 회원 id 목록 캐시. 엔티티를 공유하지 않도록 id 만 담고, 엔티티는 꺼내는 쪽이 2차 캐시를 거쳐 얻는다.
+ * 쓰기 트랜잭션 안에서 읽은 id 는 커밋 전 행이 섞여 있을 수 있으므로 캐시를 거치지 않는다. 무효화는 MemberCacheInvalidator.
+ * 캐시를 거치지 않는 조회(쓰기 트랜잭션, username 이 null)는 하이버네이트 쿼리 캐시가 받는다.
+ */
+@Component
+public class MemberIdsByUsername {
+
+    private final EntityManager em;
+    private final Cache cache;
+
+    public MemberIdsByUsername(EntityManager em, CacheManager cacheManager) {
+        this.em = em;
+        this.cache = cacheManager.getCache(CacheNames.MEMBER_IDS_BY_USERNAME);
+    }
+
+    public List<Long> get(String username) {
+        if (cache == null || username == null || inReadWriteTransaction()) { // Caffeine 은 null 키를 받지 않는다
+            return load(username);
+        }
+        return cache.get(username, () -> load(username)); // 같은 키를 동시에 놓치면 한 번만 조회한다
+    }
+
+    private List<Long> load(String username) {
+        TypedQuery<Long> query = username == null
+                ? em.createQuery("select m.id from Member as m where m.username is null order by m.id", Long.class)
+                : em.createQuery("select m.id from Member as m where m.username = :username order by m.id", Long.class)
+                .setParameter("username", username);
+        return List.copyOf(query
+                .setHint(HINT_CACHEABLE, true)
+                .getResultList());
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -1,5 +1,9 @@
 package study.datajpa.repository;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
 
@@ -14,6 +18,9 @@ public class MemberJpaRepository {
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired
+    private CountCache countCache;
+
     public Member save(Member member) {
         em.persist(member);
         return member;
@@ -62,15 +69,24 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    /**
+     * username 순으로 정렬된 페이지. 내용만으로 전체 건수가 정해지면 count 쿼리를 생략한다.
+     */
+    public Page<Member> findPageByAge(int age, Pageable pageable) {
+        List<Member> content = findByPage(age, (int) pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> totalCountByAge(age));
+    }
+
     public long totalCountByAge(int age) {
-        return em.createQuery("select count(m) from Member as m where m.age = :age", Long.class)
-                .setParameter("age", age)
-                .getSingleResult();
+        return countCache.get("Member.totalCountByAge", () ->
+                em.createQuery("select count(m) from Member as m where m.age = :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult(), age);
     }
 
     public int bulkAgePlusGreaterAndEqualThanAge(int age) {
         return em.createQuery(
-                "update Member as m" +
+                "update versioned Member as m" +
                 " set m.age = m.age + 1" +
                 " where m.age >=:age")
                 .setParameter("age", age)
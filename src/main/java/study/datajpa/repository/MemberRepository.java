@@ -1,21 +1,34 @@
 package study.datajpa.repository;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
-public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface MemberRepository extends JpaRepository<Member, Long>, JpaSpecificationExecutor<Member>,
+        MemberRepositoryCustom {
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
     @Query("select m from Member as m where m.username = :username and m.age = :age")
@@ -31,20 +44,24 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select m from Member as m where m.username in :names")
     List<Member> findByNames(@Param("names") List<String> namenamename);
 
-    List<Member> findListByUsername(String username); //컬렉션
-    Member findMemberByUsername(String username);     // 단건
-    Optional<Member> findOptionalMemberByUsername(String username); // 옵셔널
-
-    @Query(value = "select m from Member m left join fetch m.team as t",
-            countQuery = "select count(m.username) from Member as m")
-    Page<Member> findByAge(int age, Pageable pageable);
-
     Slice<Member> findSliceByAge(int age, PageRequest pageRequest);
 
     @Modifying(clearAutomatically = true) //excuteUpdate
-    @Query("update Member as m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update versioned Member as m set m.age = m.age + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
+    // 낙관적 락 재시도가 잦은 핫 로우용. 행을 잠그므로 짧은 트랜잭션 안에서만 쓴다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000"))
+    @Query("select m from Member as m where m.id = :id")
+    Optional<Member> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select min(m.id) from Member as m")
+    Long findMinId();
+
+    @Query("select max(m.id) from Member as m")
+    Long findMaxId();
+
     @Query("select m from Member as m left join fetch m.team")
     List<Member> findMemberFetchJoin();
 
@@ -58,4 +75,40 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     @EntityGraph(attributePaths = {"team"})
     List<Member> findEntityGraphByUsername(@Param("username") String username);
+
+    // 프로젝션: 엔티티를 만들지 않으므로 스냅샷/더티 체킹 비용이 없다
+    List<UsernameOnly> findProjectionsByUsername(@Param("username") String username);
+
+    <T> List<T> findProjectionsByUsername(@Param("username") String username, Class<T> type);
+
+    @Query("select m.id as id, m.username as username, t.name as teamName" +
+            " from Member as m left join m.team as t where m.username = :username")
+    List<MemberTeamView> findMemberTeamViewByUsername(@Param("username") String username);
+
+    // 집계는 DB 에서 한다. member 테이블만 읽으므로 (team_id, age) 인덱스만으로 끝난다
+    @Query("select m.team.id as teamId, count(m.id) as memberCount" +
+            " from Member as m where m.team is not null group by m.team.id order by m.team.id")
+    List<TeamMemberCount> countMembersByTeam();
+
+    @Query("select m.team.id as teamId, count(m.id) as memberCount, avg(m.age) as averageAge," +
+            " min(m.age) as minAge, max(m.age) as maxAge" +
+            " from Member as m where m.team is not null group by m.team.id order by m.team.id")
+    List<TeamAgeStats> findAgeStatsByTeam();
+
+    @Query("select (m.age / 10) * 10 as ageFrom, count(m.id) as memberCount" +
+            " from Member as m group by (m.age / 10) * 10 order by (m.age / 10) * 10")
+    List<AgeBucket> countByAgeBucket();
+
+    /**
+     * 조건 조합 검색(MemberSpecs). 팀은 fetch join 하고, count 쿼리는 필요할 때만 실행한다.
+     * 정렬은 id, username, age 만 허용한다.
+     */
+    default Page<Member> search(MemberSearchCondition condition, Pageable pageable) {
+        Specification<Member> spec = MemberSpecs.search(condition);
+        Sort sort = MemberSpecs.searchSort(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(spec, sort));
+        }
+        return findAll(spec, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort));
+    }
 }
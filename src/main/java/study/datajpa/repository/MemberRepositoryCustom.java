@@ -1,9 +1,65 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberReport;
 import study.datajpa.entity.Member;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    /**
+     * username 으로 회원을 찾는다. username -> id 목록만 캐시(MemberIdsByUsername)하고 엔티티는 2차 캐시를 거쳐
+     * 한 번에 읽으므로 호출마다 자기 영속성 컨텍스트의 (읽기 전용) 엔티티를 받는다. username 이 null 이면 null 인 회원을 찾는다.
+     */
+    List<Member> findListByUsername(String username); //컬렉션
+
+    Member findMemberByUsername(String username);     // 단건
+
+    Optional<Member> findOptionalMemberByUsername(String username); // 옵셔널
+
+    /**
+     * 나이로 회원(팀 포함)을 페이징 조회한다. total count 는 CountCache 를 거치고, 필요할 때만 센다.
+     */
+    Page<Member> findByAge(int age, Pageable pageable);
+
+    /**
+     * findByAge 의 DTO 버전. 같은 count 캐시 항목을 쓴다.
+     */
+    Page<MemberDto> findDtoByAge(int age, Pageable pageable);
+
+    /**
+     * (username, member_id) 키셋으로 다음 페이지를 조회한다. cursor 가 null 이면 첫 페이지.
+     * username 이 null 인 회원은 가장 앞에 온다.
+     */
+    Window<Member> findWindowByAge(int age, String cursor, int size);
+
+    /**
+     * 전진 전용 커서로 회원(팀 포함)을 흘려보낸다. 다음 행을 읽을 때 이전 회원은 준영속으로 만든다.
+     * 트랜잭션 안에서 사용하고, 반드시 close 해야 커서가 닫힌다.
+     */
+    Stream<Member> streamMemberCustom(int fetchSize);
+
+    /**
+     * id 배열로 회원을 조회한다. 중복을 없애고 id 순으로 나눠 2의 거듭제곱 크기 IN 절로 보내므로
+     * 목록 크기가 달라도 같은 실행 계획을 재사용한다. 결과는 id 순.
+     */
+    List<Member> findAllByIdIn(long[] ids);
+
+    /**
+     * StatelessSession 으로 회원을 한 번 훑어 팀별 인원과 나이 분포를 집계한다.
+     * 영속성 컨텍스트, 변경 감지, 2차 캐시를 거치지 않으며 현재 트랜잭션의 커넥션을 그대로 쓴다. 트랜잭션이 없으면 readOnly 트랜잭션을 연다.
+     */
+    MemberReport reportMembers(int fetchSize);
+
+    /**
+     * StatelessSession 전진 전용 커서로 회원을 DTO 로 읽어 consumer 에 넘긴다. 엔티티를 만들지 않는다.
+     */
+    void scanMembers(int fetchSize, Consumer<MemberDto> consumer);
 }
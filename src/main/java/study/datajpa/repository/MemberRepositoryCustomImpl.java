@@ -1,19 +1,335 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberReport;
 import study.datajpa.entity.Member;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @RequiredArgsConstructor
 public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
 
+    private static final int MAX_IN_SIZE = 512;
+
     private final EntityManager em;
+    private final MemberIdsByUsername memberIdsByUsername;
+    private final CountCache countCache;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member as m", Member.class)
                 .getResultList();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findListByUsername(String username) {
+        return loadByUsername(username, true); // 목록은 예전처럼 읽기 전용(HINT_READONLY)으로 올린다
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Member findMemberByUsername(String username) {
+        return findOptionalMemberByUsername(username).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Member> findOptionalMemberByUsername(String username) {
+        List<Member> members = loadByUsername(username, false);
+        if (members.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, members.size());
+        }
+        return members.stream().findFirst();
+    }
+
+    /**
+     * 캐시한 id 를 한 번에 읽는다. 영속성 컨텍스트, 2차 캐시 순으로 찾고 없는 것만 IN 쿼리로 가져온다.
+     * readOnly 면 새로 읽는 회원만 읽기 전용으로 올리고, 이미 영속 상태인 회원은 그대로 둔다.
+     */
+    private List<Member> loadByUsername(String username, boolean readOnly) {
+        List<Long> ids = memberIdsByUsername.get(username);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Session session = em.unwrap(Session.class);
+        boolean defaultReadOnly = session.isDefaultReadOnly();
+        session.setDefaultReadOnly(readOnly || defaultReadOnly);
+        try {
+            List<Member> members = new ArrayList<>(session.byMultipleIds(Member.class)
+                    .enableSessionCheck(true)
+                    .multiLoad(ids));
+            members.removeIf(Objects::isNull); // 무효화 전에 지워진 회원
+            return members;
+        } finally {
+            session.setDefaultReadOnly(defaultReadOnly);
+        }
+    }
+
+    @Override
+    public Page<Member> findByAge(int age, Pageable pageable) {
+        TypedQuery<Member> query = em.createQuery(QueryUtils.applySorting(
+                "select m from Member as m left join fetch m.team as t where m.age = :age", pageable.getSort(), "m"),
+                Member.class);
+        return pageByAge(query, age, pageable);
+    }
+
+    @Override
+    public Page<MemberDto> findDtoByAge(int age, Pageable pageable) {
+        TypedQuery<MemberDto> query = em.createQuery(QueryUtils.applySorting(
+                "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member as m left join m.team as t where m.age = :age", pageable.getSort(), "m"),
+                MemberDto.class);
+        return pageByAge(query, age, pageable);
+    }
+
+    private <T> Page<T> pageByAge(TypedQuery<T> query, int age, Pageable pageable) {
+        query.setParameter("age", age);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        // 마지막 페이지처럼 내용만으로 total 을 알 수 있으면 count 쿼리를 건너뛴다
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () ->
+                countCache.get("Member.countByAge", () ->
+                        em.createQuery("select count(m) from Member as m where m.age = :age", Long.class)
+                                .setParameter("age", age)
+                                .getSingleResult(), age));
+    }
+
+    @Override
+    public Window<Member> findWindowByAge(int age, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size 는 1 이상이어야 합니다. size = " + size);
+        }
+
+        // username 이 null 인 회원은 맨 앞(nulls first)에 모은다. cursor 에 username 이 없으면 null 구간을 지나는 중이다
+        Long cursorId = null;
+        String cursorUsername = null;
+        if (cursor != null) {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            try {
+                cursorId = Long.valueOf(separator < 0 ? decoded : decoded.substring(0, separator));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("잘못된 cursor 입니다. cursor = " + cursor, e);
+            }
+            cursorUsername = separator < 0 ? null : decoded.substring(separator + 1);
+        }
+
+        String seek = "";
+        if (cursor != null) {
+            seek = cursorUsername == null
+                    ? " and (m.username is not null or m.id > :id)"
+                    : " and (m.username > :username or (m.username = :username and m.id > :id))";
+        }
+        String jpql = "select m from Member as m" +
+                " where m.age = :age" + seek +
+                " order by m.username asc nulls first, m.id asc";
+
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class)
+                .setParameter("age", age)
+                .setMaxResults(size + 1); // 한 건 더 읽어서 다음 페이지 존재 여부를 판단
+
+        if (cursor != null) {
+            query.setParameter("id", cursorId);
+            if (cursorUsername != null) {
+                query.setParameter("username", cursorUsername);
+            }
+        }
+
+        List<Member> result = query.getResultList();
+        if (result.size() <= size) {
+            return new Window<>(result, null);
+        }
+
+        List<Member> content = result.subList(0, size);
+        Member last = content.get(size - 1);
+        String key = last.getUsername() == null ? String.valueOf(last.getId()) : last.getId() + ":" + last.getUsername();
+        String nextCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        return new Window<>(content, nextCursor);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<Member> streamMemberCustom(int fetchSize) {
+        Query<Member> query = em.createQuery("select m from Member as m left join fetch m.team", Member.class)
+                .unwrap(Query.class);
+        ScrollableResults results = query
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+
+        Spliterator<Member> spliterator = new Spliterators.AbstractSpliterator<Member>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+
+            private Member previous;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Member> action) {
+                if (previous != null) {
+                    em.detach(previous);
+                    previous = null;
+                }
+                if (!results.next()) {
+                    return false;
+                }
+                previous = (Member) results.get(0);
+                action.accept(previous);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(results::close);
+    }
+
+    @Override
+    public List<Member> findAllByIdIn(long[] ids) {
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+
+        List<Member> result = new ArrayList<>(distinct);
+        for (int from = 0; from < distinct; from += MAX_IN_SIZE) {
+            int length = Math.min(MAX_IN_SIZE, distinct - from);
+            result.addAll(em.createQuery("select m from Member as m where m.id in :ids order by m.id", Member.class)
+                    .setParameter("ids", new PaddedIds(sorted, from, length))
+                    .getResultList());
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MemberReport reportMembers(int fetchSize) {
+        return withStatelessSession(session -> {
+            long total = 0;
+            long unassigned = 0;
+            Map<Long, Long> membersByTeam = new HashMap<>();
+            Map<Long, String> teamNames = new HashMap<>();
+            Map<Integer, Long> ageHistogram = new TreeMap<>();
+
+            ScrollableResults results = session.createQuery(
+                    "select t.id, t.name, m.age from Member as m left join m.team as t")
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (results.next()) {
+                    Long teamId = (Long) results.get(0);
+                    int age = (Integer) results.get(2);
+                    total++;
+                    if (teamId == null) {
+                        unassigned++;
+                    } else {
+                        // 이름이 같은 팀이 합쳐지지 않도록 id 로 센다
+                        membersByTeam.merge(teamId, 1L, Long::sum);
+                        teamNames.putIfAbsent(teamId, (String) results.get(1));
+                    }
+                    ageHistogram.merge(age, 1L, Long::sum);
+                }
+            } finally {
+                results.close();
+            }
+            return new MemberReport(total, unassigned, membersByTeam, teamNames, ageHistogram);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void scanMembers(int fetchSize, Consumer<MemberDto> consumer) {
+        withStatelessSession(session -> {
+            ScrollableResults results = session.createQuery(
+                    "select m.id, m.username, t.name from Member as m left join m.team as t")
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (results.next()) {
+                    consumer.accept(new MemberDto((Long) results.get(0), (String) results.get(1), (String) results.get(2)));
+                }
+            } finally {
+                results.close();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 현재 EntityManager 의 커넥션을 빌려 StatelessSession 을 연다. 같은 트랜잭션 안이므로 flush 된 변경도 보인다.
+     */
+    private <T> T withStatelessSession(Function<StatelessSession, T> work) {
+        Session session = em.unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (StatelessSession stateless = session.getSessionFactory()
+                    .withStatelessOptions()
+                    .connection(connection)
+                    .openStatelessSession()) {
+                return work.apply(stateless);
+            }
+        });
+    }
+
+    /**
+     * long[] 의 일부를 복사 없이 보여주는 리스트. 크기를 2의 거듭제곱으로 올리고 남는 자리는 마지막 id 로 채운다.
+     */
+    private static class PaddedIds extends AbstractList<Long> implements RandomAccess {
+
+        private final long[] ids;
+        private final int from;
+        private final int length;
+        private final int size;
+
+        private PaddedIds(long[] ids, int from, int length) {
+            this.ids = ids;
+            this.from = from;
+            this.length = length;
+            this.size = length == 1 ? 1 : Integer.highestOneBit(length - 1) << 1;
+        }
+
+        @Override
+        public Long get(int index) {
+            return ids[from + Math.min(index, length - 1)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
 }
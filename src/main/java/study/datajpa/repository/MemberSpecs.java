@@ -0,0 +1,108 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Member_;
+import study.datajpa.entity.Team;
+import study.datajpa.entity.Team_;
+
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import java.util.Set;
+
+/**
+ * 회원 검색 Specification. 속성은 정적 메타모델(Member_, Team_)로 가리킨다.
+ * 조건은 항상 같은 순서로 묶고 값은 바인딩(criteria.literal_handling_mode: bind)하므로
+ * 같은 조건 조합은 값이 달라도 같은 JPQL 이 되어 하이버네이트 쿼리 플랜 캐시를 재사용한다.
+ */
+public final class MemberSpecs {
+
+    private static final Set<String> SEARCH_SORT_PROPERTIES = Set.of(Member_.ID, Member_.USERNAME, Member_.AGE);
+
+    private MemberSpecs() {
+    }
+
+    public static Specification<Member> search(MemberSearchCondition condition) {
+        Specification<Member> spec = Specification.where(fetchTeam());
+        if (condition.getUsername() != null) {
+            spec = spec.and(usernameEq(condition.getUsername()));
+        }
+        if (condition.getTeamName() != null) {
+            spec = spec.and(teamNameEq(condition.getTeamName()));
+        }
+        if (condition.getAgeGoe() != null) {
+            spec = spec.and(ageGoe(condition.getAgeGoe()));
+        }
+        if (condition.getAgeLoe() != null) {
+            spec = spec.and(ageLoe(condition.getAgeLoe()));
+        }
+        return spec;
+    }
+
+    public static Specification<Member> usernameEq(String username) {
+        return (root, query, cb) -> cb.equal(root.get(Member_.username), username);
+    }
+
+    public static Specification<Member> teamNameEq(String teamName) {
+        return (root, query, cb) -> cb.equal(team(root, query).get(Team_.name), teamName);
+    }
+
+    public static Specification<Member> ageGoe(int age) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(Member_.age), age);
+    }
+
+    public static Specification<Member> ageLoe(int age) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get(Member_.age), age);
+    }
+
+    /**
+     * 내용 조회에서만 팀을 fetch join 한다. count 쿼리는 fetch 할 수 없고 팀도 필요 없다.
+     */
+    public static Specification<Member> fetchTeam() {
+        return (root, query, cb) -> {
+            if (!isCountQuery(query)) {
+                team(root, query);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * 정렬은 id, username, age 만 허용하고, 결과 순서가 흔들리지 않게 id 를 마지막 정렬 기준으로 붙인다.
+     */
+    public static Sort searchSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("정렬할 수 없는 속성입니다. property = " + order.getProperty());
+            }
+        }
+        return sort.getOrderFor(Member_.ID) == null ? sort.and(Sort.by(Member_.ID)) : sort;
+    }
+
+    // 이미 붙은 팀 fetch/join 을 다시 쓴다. 하이버네이트의 fetch 는 Join 이기도 하다
+    @SuppressWarnings("unchecked")
+    private static Join<Member, Team> team(Root<Member> root, CriteriaQuery<?> query) {
+        for (Fetch<Member, ?> fetch : root.getFetches()) {
+            if (fetch.getAttribute().equals(Member_.team)) {
+                return (Join<Member, Team>) fetch;
+            }
+        }
+        for (Join<Member, ?> join : root.getJoins()) {
+            if (join.getAttribute().equals(Member_.team)) {
+                return (Join<Member, Team>) join;
+            }
+        }
+        return isCountQuery(query)
+                ? root.join(Member_.team, JoinType.LEFT)
+                : (Join<Member, Team>) root.fetch(Member_.team, JoinType.LEFT);
+    }
+
+    private static boolean isCountQuery(CriteriaQuery<?> query) {
+        return query.getResultType() == Long.class || query.getResultType() == long.class;
+    }
+}
@@ -0,0 +1,10 @@
+package study.datajpa.repository;
+
+/**
+ * 회원 + 팀 이름 인터페이스 프로젝션. 쿼리의 별칭(as)과 getter 이름이 같아야 한다.
+ */
+public interface MemberTeamView {
+    Long getId();
+    String getUsername();
+    String getTeamName();
+}
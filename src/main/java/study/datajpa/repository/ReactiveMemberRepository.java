@@ -0,0 +1,60 @@
+package study.datajpa.repository;
+
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import study.datajpa.dto.MemberDto;
+
+/**
+ * R2DBC 회원 조회. 엔티티 대신 DTO 를 바로 만든다. (r2dbc-h2 는 구독한 스레드에서 동기로 실행된다)
+ * 큰 결과는 {@link #streamAll()} 로 구독자가 요청한 만큼만 fetchSize 단위로 당겨 읽는다.
+ */
+@Component
+@ConditionalOnProperty(name = "datajpa.r2dbc.enabled", havingValue = "true")
+public class ReactiveMemberRepository {
+
+    private static final String SELECT_MEMBER_DTO = "select m.member_id, m.username, t.name as team_name" +
+            " from member m left join team t on t.team_id = m.team_id";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ReactiveMemberRepository(DatabaseClient databaseClient,
+                                    @Value("${datajpa.r2dbc.fetch-size:256}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<MemberDto> findById(long id) {
+        return databaseClient.execute(SELECT_MEMBER_DTO + " where m.member_id = :id")
+                .bind("id", id)
+                .map(ReactiveMemberRepository::toDto)
+                .one();
+    }
+
+    public Flux<MemberDto> findByAge(int age) {
+        return databaseClient.execute(SELECT_MEMBER_DTO + " where m.age = :age order by m.username, m.member_id")
+                .bind("age", age)
+                .map(ReactiveMemberRepository::toDto)
+                .all();
+    }
+
+    /**
+     * 회원 전체를 id 순으로 흘려보낸다. 하류 요청을 fetchSize 단위로 묶어 올려서 한꺼번에 메모리에 쌓이지 않는다.
+     */
+    public Flux<MemberDto> streamAll() {
+        return databaseClient.execute(SELECT_MEMBER_DTO + " order by m.member_id")
+                .map(ReactiveMemberRepository::toDto)
+                .all()
+                .limitRate(fetchSize);
+    }
+
+    private static MemberDto toDto(Row row) {
+        return new MemberDto(row.get("member_id", Long.class), row.get("username", String.class),
+                row.get("team_name", String.class));
+    }
+}
@@ -0,0 +1,38 @@
+package study.datajpa.repository;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import study.datajpa.dto.TeamDto;
+
+/**
+ * R2DBC 팀 조회. Team 엔티티는 JPA 영속성 컨텍스트 밖에서 만들 수 없으므로(protected 생성자, id 세터 없음) DTO 로 돌려준다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.r2dbc.enabled", havingValue = "true")
+public class ReactiveTeamRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<TeamDto> findById(long id) {
+        return databaseClient.execute("select team_id, name from team where team_id = :id")
+                .bind("id", id)
+                .map(ReactiveTeamRepository::toDto)
+                .one();
+    }
+
+    public Flux<TeamDto> findAll() {
+        return databaseClient.execute("select team_id, name from team order by team_id")
+                .map(ReactiveTeamRepository::toDto)
+                .all();
+    }
+
+    private static TeamDto toDto(Row row) {
+        return new TeamDto(row.get("team_id", Long.class), row.get("name", String.class));
+    }
+}
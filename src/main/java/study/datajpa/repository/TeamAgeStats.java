@@ -0,0 +1,12 @@
+package study.datajpa.repository;
+
+/**
+ * 팀별 나이 통계 프로젝션.
+ */
+public interface TeamAgeStats {
+    Long getTeamId();
+    Long getMemberCount();
+    Double getAverageAge();
+    Integer getMinAge();
+    Integer getMaxAge();
+}
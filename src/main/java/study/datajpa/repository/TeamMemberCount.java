@@ -0,0 +1,10 @@
+package study.datajpa.repository;
+
+/**
+ * 팀별 회원 수 프로젝션. 팀 이름이 필요 없는 쿼리에서는 teamName 이 null 이다.
+ */
+public interface TeamMemberCount {
+    Long getTeamId();
+    String getTeamName();
+    Long getMemberCount();
+}
@@ -1,8 +1,15 @@
 package study.datajpa.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import study.datajpa.entity.Team;
 
+import java.util.List;
+
 public interface TeamRepository extends JpaRepository<Team, Long> {
 
+    // 회원이 없는 팀도 0 으로 나오도록 left join
+    @Query("select t.id as teamId, t.name as teamName, count(m.id) as memberCount" +
+            " from Team as t left join t.members as m group by t.id, t.name order by t.id")
+    List<TeamMemberCount> findMemberCounts();
 }
@@ -0,0 +1,5 @@
+package study.datajpa.repository;
+
+public interface UsernameOnly {
+    String getUsername();
+}
@@ -0,0 +1,25 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 키셋(seek) 페이징 결과.
+ * 다음 페이지는 OFFSET 대신 마지막 행의 키를 담은 {@link #getNextCursor()} 로 이어서 조회한다.
+ */
+@Getter
+public class Window<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public Window(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * 청크 단위 벌크 수정 결과. 실패하면 커밋되지 않은 구간이 remaining 에 남고,
+ * {@link MemberBulkUpdater#resume(BulkUpdateResult)} 로 그 구간만 다시 실행한다.
+ */
+@Getter
+@ToString
+public class BulkUpdateResult {
+
+    private final int age;
+    private final long updatedRows;
+    private final int completedChunks;
+    private final List<IdRange> remaining;
+    private final Throwable failure;
+    private final long elapsedNanos;
+
+    public BulkUpdateResult(int age, long updatedRows, int completedChunks, List<IdRange> remaining,
+                            Throwable failure, long elapsedNanos) {
+        this.age = age;
+        this.updatedRows = updatedRows;
+        this.completedChunks = completedChunks;
+        this.remaining = remaining;
+        this.failure = failure;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public boolean isCompleted() {
+        return remaining.isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package study.datajpa.service;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 양 끝을 포함하는 PK 구간.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class IdRange {
+
+    private final long from;
+    private final long to;
+
+    public IdRange(long from, long to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from 이 to 보다 클 수 없습니다. from = " + from + ", to = " + to);
+        }
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * [min, max] 를 chunkSize 개의 PK 씩 나눈다.
+     */
+    public static List<IdRange> chunks(long min, long max, long chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize 는 1 이상이어야 합니다. chunkSize = " + chunkSize);
+        }
+        List<IdRange> ranges = new ArrayList<>();
+        for (long from = min; from <= max; from += chunkSize) {
+            ranges.add(new IdRange(from, Math.min(max, from + chunkSize - 1)));
+            if (from > Long.MAX_VALUE - chunkSize) {
+                break;
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * [min, max] 를 크기가 거의 같은 count 개 이하의 구간으로 나눈다.
+     */
+    public static List<IdRange> partitions(long min, long max, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count 는 1 이상이어야 합니다. count = " + count);
+        }
+        long span = max - min + 1;
+        return chunks(min, max, Math.max(1, (span + count - 1) / count));
+    }
+}
@@ -0,0 +1,197 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.MemberChangedEvent;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.AuditClock;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link MemberRepository#bulkAgePlus(int)} 를 PK 구간 청크로 나눠 실행한다.
+ * 청크마다 별도 트랜잭션으로 커밋하므로 행 잠금과 undo 가 청크 크기로 제한되고,
+ * 실패하면 커밋되지 않은 구간만 결과에 남아 이어서 실행할 수 있다.
+ * clearAutomatically 처럼 영속성 컨텍스트 전체를 비우지 않고, 바뀐 회원만 호출한 쪽 영속성 컨텍스트와 2차 캐시에서 내린다.
+ */
+@Slf4j
+@Service
+public class MemberBulkUpdater {
+
+    // 어떤 엔티티와도 겹치지 않는 쿼리 공간. 하이버네이트가 Member 캐시 영역 전체를 비우지 않게 한다.
+    private static final String CHUNK_QUERY_SPACE = "member_bulk_update_chunk";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final EntityManagerFactory emf;
+    private final MemberRepository memberRepository;
+    private final ApplicationEventPublisher publisher;
+    private final TransactionTemplate chunkTx;
+    private final AuditorAware<String> auditorAware;
+    private final ExecutorService batchExecutor;
+    private final int chunkSize;
+    private final boolean stampAudit;
+
+    public MemberBulkUpdater(EntityManagerFactory emf,
+                             MemberRepository memberRepository,
+                             ApplicationEventPublisher publisher,
+                             PlatformTransactionManager transactionManager,
+                             AuditorAware<String> auditorAware,
+                             @Qualifier("batchExecutor") ExecutorService batchExecutor,
+                             @Value("${datajpa.bulk-update.chunk-size:1000}") int chunkSize,
+                             @Value("${datajpa.bulk-update.stamp-audit:true}") boolean stampAudit) {
+        this.emf = emf;
+        this.memberRepository = memberRepository;
+        this.publisher = publisher;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.auditorAware = auditorAware;
+        this.batchExecutor = batchExecutor;
+        this.chunkSize = chunkSize;
+        this.stampAudit = stampAudit;
+    }
+
+    /**
+     * age 이상인 회원의 나이를 1 올린다.
+     */
+    public BulkUpdateResult agePlus(int age) {
+        Long min = memberRepository.findMinId();
+        Long max = memberRepository.findMaxId();
+        if (min == null) {
+            return new BulkUpdateResult(age, 0, 0, Collections.emptyList(), null, 0);
+        }
+        return run(age, IdRange.chunks(min, max, chunkSize));
+    }
+
+    /**
+     * 실패한 결과의 남은 구간만 다시 실행한다. 커밋된 청크는 다시 실행하지 않는다.
+     */
+    public BulkUpdateResult resume(BulkUpdateResult previous) {
+        return run(previous.getAge(), previous.getRemaining());
+    }
+
+    private BulkUpdateResult run(int age, List<IdRange> ranges) {
+        long start = System.nanoTime();
+        EntityManager callerEm = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        String auditor = stampAudit ? auditorAware.getCurrentAuditor().orElse(null) : null; // 호출한 스레드의 감사자
+
+        AtomicLong updatedRows = new AtomicLong();
+        AtomicInteger completedChunks = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Queue<IdRange> remaining = new ConcurrentLinkedQueue<>();
+        Queue<Long> updatedIds = new ConcurrentLinkedQueue<>();
+
+        List<Callable<Void>> tasks = new ArrayList<>(ranges.size());
+        for (IdRange range : ranges) {
+            tasks.add(() -> {
+                if (failure.get() != null) {
+                    remaining.add(range); // 앞 청크가 실패하면 더 진행하지 않는다
+                    return null;
+                }
+                try {
+                    List<Long> ids = chunkTx.execute(status -> updateChunk(age, range, auditor, updatedRows));
+                    evictFromSecondLevelCache(ids);
+                    if (callerEm != null) {
+                        updatedIds.addAll(ids);
+                    }
+                    completedChunks.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    remaining.add(range);
+                    log.warn("청크 수정 실패. range = {}", range, e);
+                }
+                return null;
+            });
+        }
+
+        try {
+            batchExecutor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        }
+
+        if (callerEm != null) {
+            detachFromCaller(callerEm, updatedIds);
+        }
+        emf.getCache().unwrap(Cache.class).evictDefaultQueryRegion();
+        publisher.publishEvent(MemberChangedEvent.bulk());
+
+        List<IdRange> left = new ArrayList<>(remaining);
+        left.sort((a, b) -> Long.compare(a.getFrom(), b.getFrom()));
+        return new BulkUpdateResult(age, updatedRows.get(), completedChunks.get(), left,
+                failure.get(), System.nanoTime() - start);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Long> updateChunk(int age, IdRange range, String auditor, AtomicLong updatedRows) {
+        List<Long> ids = em.createQuery("select m.id from Member as m" +
+                " where m.id between :from and :to and m.age >= :age", Long.class)
+                .setParameter("from", range.getFrom())
+                .setParameter("to", range.getTo())
+                .setParameter("age", age)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        // 벌크 수정은 엔티티 리스너를 거치지 않으므로 감사 컬럼도 같은 SQL 에서 채운다
+        NativeQuery query = em.createNativeQuery("update member set age = age + 1, version = version + 1" +
+                (stampAudit ? ", last_modified_date = :now, last_modified_by = :auditor" : "") +
+                " where member_id in (:ids) and age >= :age")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(CHUNK_QUERY_SPACE)
+                .setParameterList("ids", ids)
+                .setParameter("age", age);
+        if (stampAudit) {
+            query.setParameter("now", AuditClock.now())
+                    .setParameter("auditor", auditor);
+        }
+        int updated = query.executeUpdate();
+        updatedRows.addAndGet(updated);
+        return ids;
+    }
+
+    private void evictFromSecondLevelCache(List<Long> ids) {
+        for (Long id : ids) {
+            emf.getCache().evict(Member.class, id);
+        }
+    }
+
+    private void detachFromCaller(EntityManager callerEm, Queue<Long> ids) {
+        SessionImplementor session = callerEm.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Member.class);
+        for (Long id : ids) {
+            Object managed = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+            if (managed != null) {
+                callerEm.detach(managed);
+            }
+        }
+    }
+}
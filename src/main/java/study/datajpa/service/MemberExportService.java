@@ -0,0 +1,79 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 회원 전체를 커서로 읽으면서 바로 써 내려가는 내보내기.
+ * 한 번에 fetchSize 만큼만 메모리에 올라오므로 행 수와 상관없이 힙 사용량이 일정하다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportCsv(Writer writer, int fetchSize) throws IOException {
+        checkFetchSize(fetchSize);
+        writer.write("id,username,teamName\n");
+        return export(fetchSize, writer, dto -> String.join(",",
+                String.valueOf(dto.getId()), csv(dto.getUsername()), csv(dto.getTeamName())));
+    }
+
+    @Transactional(readOnly = true)
+    public long exportNdjson(Writer writer, int fetchSize) throws IOException {
+        checkFetchSize(fetchSize);
+        return export(fetchSize, writer, objectMapper::writeValueAsString);
+    }
+
+    private long export(int fetchSize, Writer writer, LineFormatter formatter) throws IOException {
+        long rows = 0;
+        try (Stream<Member> members = memberRepository.streamMemberCustom(fetchSize)) {
+            Iterator<Member> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                Member member = iterator.next();
+                String teamName = member.getTeam() == null ? null : member.getTeam().getName();
+                writer.write(formatter.format(new MemberDto(member.getId(), member.getUsername(), teamName)));
+                writer.write('\n');
+                if (++rows % fetchSize == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void checkFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize 는 1 이상이어야 합니다. fetchSize = " + fetchSize);
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface LineFormatter {
+        String format(MemberDto dto) throws IOException;
+    }
+}
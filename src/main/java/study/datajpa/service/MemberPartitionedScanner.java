@@ -0,0 +1,166 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * member_id 구간을 파티션으로 나눠 회원 전체를 병렬로 처리한다.
+ * 파티션은 공용 batchExecutor 에서 돌므로 동시에 처리되는 파티션 수는 datajpa.batch.pool-size 를 넘지 않는다.
+ * 파티션마다 전용 EntityManager 를 스레드에 묶고, 그 안에서 chunkSize 건씩 키셋으로 읽어 청크마다 커밋한 뒤 clear 한다.
+ * processor 는 트랜잭션 안에서 영속 상태의 회원을 받으므로 값을 바꾸면 청크 커밋 때 반영된다.
+ */
+@Slf4j
+@Service
+public class MemberPartitionedScanner {
+
+    private final EntityManagerFactory emf;
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate chunkTx;
+    private final ExecutorService batchExecutor;
+    private final long progressIntervalNanos;
+
+    public MemberPartitionedScanner(EntityManagerFactory emf,
+                                    MemberRepository memberRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Qualifier("batchExecutor") ExecutorService batchExecutor,
+                                    @Value("${datajpa.partitioned-scan.progress-interval-ms:5000}") long progressIntervalMillis) {
+        this.emf = emf;
+        this.memberRepository = memberRepository;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.batchExecutor = batchExecutor;
+        this.progressIntervalNanos = TimeUnit.MILLISECONDS.toNanos(progressIntervalMillis);
+    }
+
+    public ScanResult scan(int partitions, int chunkSize, Consumer<Member> processor) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize 는 1 이상이어야 합니다. chunkSize = " + chunkSize);
+        }
+        Long min = memberRepository.findMinId();
+        Long max = memberRepository.findMaxId();
+        if (min == null) {
+            return new ScanResult(0, 0, 0, Collections.emptyList(), null, 0);
+        }
+        return scan(IdRange.partitions(min, max, partitions), chunkSize, processor);
+    }
+
+    /**
+     * 지정한 구간만 처리한다. 실패한 결과의 remaining 으로 이어서 실행할 수 있다.
+     */
+    public ScanResult scan(List<IdRange> partitions, int chunkSize, Consumer<Member> processor) {
+        long start = System.nanoTime();
+        Progress progress = new Progress(start);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Queue<IdRange> remaining = new ConcurrentLinkedQueue<>();
+
+        List<Callable<Void>> tasks = new ArrayList<>(partitions.size());
+        for (IdRange partition : partitions) {
+            tasks.add(() -> {
+                scanPartition(partition, chunkSize, processor, progress, failure, remaining);
+                return null;
+            });
+        }
+
+        try {
+            batchExecutor.invokeAll(tasks); // 인터럽트되면 아직 끝나지 않은 파티션은 취소된다
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        }
+
+        List<IdRange> left = new ArrayList<>(remaining);
+        left.sort((a, b) -> Long.compare(a.getFrom(), b.getFrom()));
+        ScanResult result = new ScanResult(partitions.size(), progress.rows.get(), progress.chunks.get(), left,
+                failure.get(), System.nanoTime() - start);
+        log.info("회원 스캔 완료. {}", result);
+        return result;
+    }
+
+    private void scanPartition(IdRange partition, int chunkSize, Consumer<Member> processor, Progress progress,
+                               AtomicReference<Throwable> failure, Queue<IdRange> remaining) {
+        if (failure.get() != null) {
+            remaining.add(partition); // 다른 파티션이 실패하면 새 파티션은 시작하지 않는다
+            return;
+        }
+
+        EntityManager em = emf.createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(em));
+        long last = partition.getFrom() - 1;
+        try {
+            while (last < partition.getTo()) {
+                long after = last;
+                List<Member> chunk = chunkTx.execute(status -> {
+                    List<Member> members = em.createQuery("select m from Member as m left join fetch m.team" +
+                            " where m.id > :after and m.id <= :to order by m.id", Member.class)
+                            .setParameter("after", after)
+                            .setParameter("to", partition.getTo())
+                            .setMaxResults(chunkSize)
+                            .getResultList();
+                    members.forEach(processor);
+                    return members;
+                });
+                em.clear();
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                last = chunk.get(chunk.size() - 1).getId();
+                progress.chunkCommitted(chunk.size());
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            remaining.add(new IdRange(last + 1, partition.getTo()));
+            log.warn("파티션 스캔 실패. partition = {}, lastCommittedId = {}", partition, last, e);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(emf);
+            em.close();
+        }
+    }
+
+    private class Progress {
+
+        private final long start;
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong chunks = new AtomicLong();
+        private final AtomicLong lastReport;
+
+        private Progress(long start) {
+            this.start = start;
+            this.lastReport = new AtomicLong(start);
+        }
+
+        private void chunkCommitted(int size) {
+            long total = rows.addAndGet(size);
+            chunks.incrementAndGet();
+            long now = System.nanoTime();
+            long previous = lastReport.get();
+            if (now - previous >= progressIntervalNanos && lastReport.compareAndSet(previous, now)) {
+                double seconds = (now - start) / (double) TimeUnit.SECONDS.toNanos(1);
+                log.info("회원 스캔 진행. rows = {}, chunks = {}, rows/s = {}", total, chunks.get(), (long) (total / seconds));
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.UsernameOnlyDto;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberTeamView;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 조회 전용 서비스. readOnly 트랜잭션이라 하이버네이트 세션이 FlushMode.MANUAL + 읽기 전용으로 열려
+ * flush 와 스냅샷 보관 비용이 들지 않는다.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberQueryService {
+
+    private final MemberRepository memberRepository;
+
+    public Optional<MemberDto> findById(Long id) {
+        return memberRepository.findById(id)
+                .map(member -> new MemberDto(member.getId(), member.getUsername(),
+                        member.getTeam() == null ? null : member.getTeam().getName()));
+    }
+
+    public List<UsernameOnlyDto> findUsernames(String username) {
+        return memberRepository.findProjectionsByUsername(username, UsernameOnlyDto.class);
+    }
+
+    public List<MemberTeamView> findWithTeamName(String username) {
+        return memberRepository.findMemberTeamViewByUsername(username);
+    }
+
+    public Page<MemberDto> findPageByAge(int age, Pageable pageable) {
+        return memberRepository.findDtoByAge(age, pageable);
+    }
+
+    public List<MemberDto> findAllWithTeamName() {
+        return memberRepository.findMemberDto();
+    }
+}
@@ -0,0 +1,43 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 파티션 스캔 결과. 실패한 파티션은 마지막으로 커밋한 id 다음부터의 구간이 remaining 에 남는다.
+ */
+@Getter
+@ToString
+public class ScanResult {
+
+    private final int partitions;
+    private final long rows;
+    private final long chunks;
+    private final List<IdRange> remaining;
+    private final Throwable failure;
+    private final long elapsedNanos;
+
+    public ScanResult(int partitions, long rows, long chunks, List<IdRange> remaining,
+                      Throwable failure, long elapsedNanos) {
+        this.partitions = partitions;
+        this.rows = rows;
+        this.chunks = chunks;
+        this.remaining = remaining;
+        this.failure = failure;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public boolean isCompleted() {
+        return remaining.isEmpty();
+    }
+
+    public double getRowsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return rows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+}
@@ -0,0 +1,40 @@
+package study.datajpa.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class AsyncRepositoryConfig {
+
+    /**
+     * 저장소 비동기 호출용 실행기. 커넥션 풀 크기만큼 동시에 실행하고 queueCapacity 만큼 더 받는다.
+     * mode 가 virtual 이면 가상 스레드(JDK 21+)를 쓰고, 동시 실행 수는 똑같이 permits 로 제한한다.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedExecutor repositoryExecutor(
+            @Value("${datajpa.async.mode:platform}") String mode,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${datajpa.async.queue-capacity:100}") int queueCapacity) {
+        ExecutorService delegate = "virtual".equals(mode)
+                ? newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("repository-"));
+        int permits = "virtual".equals(mode) ? poolSize : poolSize + queueCapacity;
+        return new BoundedExecutor(delegate, permits);
+    }
+
+    /**
+     * 소스는 JDK 11 로 컴파일하므로 가상 스레드 실행기는 리플렉션으로 만든다.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("datajpa.async.mode=virtual 은 JDK 21 이상에서만 사용할 수 있습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package study.datajpa.support;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 감사 컬럼용 시계. 같은 밀리초 안에서는 이미 만든 LocalDateTime 을 돌려줘서
+ * 대량 저장 시 행마다 시간 객체를 새로 만들지 않는다.
+ */
+public final class AuditClock {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static volatile Tick tick = new Tick(Long.MIN_VALUE, null);
+
+    private AuditClock() {
+    }
+
+    public static LocalDateTime now() {
+        long millis = System.currentTimeMillis();
+        Tick current = tick;
+        if (current.millis != millis) {
+            current = new Tick(millis, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE));
+            tick = current;
+        }
+        return current.time;
+    }
+
+    private static final class Tick {
+        private final long millis;
+        private final LocalDateTime time;
+
+        private Tick(long millis, LocalDateTime time) {
+            this.millis = millis;
+            this.time = time;
+        }
+    }
+}
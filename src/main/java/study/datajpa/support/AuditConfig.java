@@ -0,0 +1,20 @@
+package study.datajpa.support;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.AuditorAware;
+
+@Configuration
+public class AuditConfig {
+
+    @Bean
+    public AuditorAware<String> auditorProvider() {
+        return new CachingAuditorAware();
+    }
+
+    @Bean
+    public FilterRegistrationBean<AuditorScopeFilter> auditorScopeFilter() {
+        return new FilterRegistrationBean<>(new AuditorScopeFilter());
+    }
+}
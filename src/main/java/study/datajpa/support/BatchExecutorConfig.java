@@ -0,0 +1,22 @@
+package study.datajpa.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class BatchExecutorConfig {
+
+    /**
+     * 청크 벌크 수정처럼 커넥션을 오래 잡는 배치 작업이 함께 쓰는 스레드 풀. 호출마다 풀을 새로 만들지 않는다.
+     * 동시에 도는 배치 작업 전체가 poolSize 개의 커넥션까지만 쓴다.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService batchExecutor(@Value("${datajpa.batch.pool-size:4}") int poolSize) {
+        return Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("batch-"));
+    }
+}
@@ -0,0 +1,62 @@
+package study.datajpa.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * 동시에 떠 있는 작업 수를 permits 로 제한하는 실행기.
+ * 자리가 없으면 기다리지 않고 바로 거절해서, 제출한 요청 스레드를 막지 않고 호출한 쪽에 압력을 돌려준다.
+ */
+public class BoundedExecutor implements Executor {
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+
+    public BoundedExecutor(ExecutorService delegate, int permits) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(permits);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("저장소 실행기가 가득 찼습니다.");
+        }
+
+        try {
+            delegate.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * supplier 를 비동기로 실행한다. 가득 찼으면 예외를 던지지 않고 RejectedExecutionException 으로 실패한 future 를 돌려준다.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, this);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+}
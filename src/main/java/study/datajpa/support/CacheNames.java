@@ -0,0 +1,9 @@
+package study.datajpa.support;
+
+public final class CacheNames {
+
+    public static final String MEMBER_IDS_BY_USERNAME = "memberIdsByUsername";
+
+    private CacheNames() {
+    }
+}
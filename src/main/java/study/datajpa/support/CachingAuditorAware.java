@@ -0,0 +1,41 @@
+package study.datajpa.support;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 요청마다 한 번만 감사자를 만들어 재사용한다. 요청이 끝나면 {@link AuditorScopeFilter} 가 {@link #clear()} 한다.
+ * 요청 밖(배치, 비동기 실행기 스레드)에서는 스레드를 재사용하므로 캐시하지 않고 매번 만든다.
+ */
+public class CachingAuditorAware implements AuditorAware<String> {
+
+    private static final ThreadLocal<Optional<String>> AUDITOR = new ThreadLocal<>();
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return newAuditor();
+        }
+        Optional<String> auditor = AUDITOR.get();
+        if (auditor == null) {
+            auditor = newAuditor();
+            AUDITOR.set(auditor);
+        }
+        return auditor;
+    }
+
+    public static void clear() {
+        AUDITOR.remove();
+    }
+
+    private static Optional<String> newAuditor() {
+        // 실제로는 시큐리티컨텍스트홀더나 세션에서 유저의 정보를 돌려줘야함.
+        // UUID.randomUUID() 는 SecureRandom 을 쓰므로 임시 값은 ThreadLocalRandom 으로 만든다.
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Optional.of(new UUID(random.nextLong(), random.nextLong()).toString());
+    }
+}
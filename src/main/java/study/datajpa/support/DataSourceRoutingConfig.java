@@ -0,0 +1,80 @@
+package study.datajpa.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * datajpa.datasource.routing.enabled=true 이면 primary/replica 두 풀을 만들고 readOnly 여부로 나눠 보낸다.
+ * 로컬에서는 replica 프로필(application-replica.yml)로 H2 두 개를 띄워 확인한다.
+ * 기본 flyway 는 primary 에만 돈다. 복제가 없는 로컬 replica 는 migrate-replica=true 로 같은 마이그레이션을 따로 적용한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("datajpa.datasource.primary")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("datajpa.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("datajpa.datasource.primary.hikari")
+    public HikariDataSource primaryDataSource() {
+        return primaryDataSourceProperties().initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datajpa.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        return replicaDataSourceProperties().initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Value("${datajpa.datasource.routing.sticky-millis:1000}") long stickyMillis) {
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource(stickyMillis);
+        routing.setTargetDataSources(Map.of(
+                ReplicationRoutingDataSource.PRIMARY, primaryDataSource(),
+                ReplicationRoutingDataSource.REPLICA, replicaDataSource()));
+        routing.setDefaultTargetDataSource(primaryDataSource());
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "datajpa.datasource.routing.migrate-replica", havingValue = "true")
+    public InitializingBean replicaFlywayMigration(ObjectProvider<FlywayMigrationStrategy> migrationStrategy) {
+        // Flyway 타입 빈을 올리면 primary 용 자동 설정이 빠지므로 초기화 콜백으로만 돌린다
+        return () -> {
+            Flyway flyway = Flyway.configure().dataSource(replicaDataSource()).load();
+            migrationStrategy.ifAvailable(strategy -> strategy.migrate(flyway), flyway::migrate);
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReplicaStickinessFilter> replicaStickinessFilter() {
+        return new FilterRegistrationBean<>(new ReplicaStickinessFilter());
+    }
+}
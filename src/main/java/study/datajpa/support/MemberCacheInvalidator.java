@@ -0,0 +1,49 @@
+package study.datajpa.support;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.datajpa.entity.MemberChangedEvent;
+
+/**
+ * username -> id 캐시 무효화. 저장/삭제는 해당 username 만, 수정은 이전 username 을 알 수 없으므로 전체를,
+ * 벌크 연산도 전체를 비운다. 트랜잭션이 끝나면(커밋이든 롤백이든) 한 번 더 비워서
+ * 그 사이 다른 스레드가 읽어 넣은 커밋 전 값을 지운다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        invalidate(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterMemberChangeCompleted(MemberChangedEvent event) {
+        invalidate(event);
+    }
+
+    private void invalidate(MemberChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheNames.MEMBER_IDS_BY_USERNAME);
+        if (cache == null) {
+            return;
+        }
+        if (evictsSingleKey(event)) {
+            cache.evict(event.getMember().getUsername());
+        } else {
+            cache.clear();
+        }
+    }
+
+    private static boolean evictsSingleKey(MemberChangedEvent event) {
+        return (event.getType() == MemberChangedEvent.Type.CREATED || event.getType() == MemberChangedEvent.Type.DELETED)
+                && event.getMember().getUsername() != null;
+    }
+}
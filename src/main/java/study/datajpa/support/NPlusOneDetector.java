@@ -0,0 +1,38 @@
+package study.datajpa.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 하이버네이트가 준비하는 모든 SQL 을 보고, 같은 모양의 select 가 threshold 를 넘게 반복되면 N+1 로 본다.
+ * {@link QueryCounter} 가 시작된 스레드에서만 동작한다.
+ */
+@Slf4j
+public class NPlusOneDetector implements StatementInspector {
+
+    private final int threshold;
+    private final boolean failOnDetection;
+
+    public NPlusOneDetector(int threshold, boolean failOnDetection) {
+        this.threshold = threshold;
+        this.failOnDetection = failOnDetection;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        QueryCount count = QueryCounter.current();
+        if (count == null) {
+            return sql;
+        }
+
+        int repeated = count.record(sql);
+        if (repeated == threshold + 1 && QueryCount.isSelect(sql)) {
+            String message = "N+1 의심: 같은 select 가 " + threshold + "번을 넘게 실행되었습니다. sql = " + sql;
+            if (failOnDetection) {
+                throw new NPlusOneException(message);
+            }
+            log.warn(message);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,8 @@
+package study.datajpa.support;
+
+public class NPlusOneException extends RuntimeException {
+
+    public NPlusOneException(String message) {
+        super(message);
+    }
+}
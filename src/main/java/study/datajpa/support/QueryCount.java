@@ -0,0 +1,62 @@
+package study.datajpa.support;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 한 요청(또는 테스트) 동안 실행된 SQL 을 모양별로 센다.
+ * 바인딩 값은 ? 로 남아 있으므로 SQL 문자열이 곧 쿼리의 모양이다.
+ */
+public class QueryCount {
+
+    private final Map<String, Integer> countByShape = new HashMap<>();
+    private int total;
+    private int selects;
+
+    int record(String sql) {
+        total++;
+        if (isSelect(sql)) {
+            selects++;
+        }
+        return countByShape.merge(sql, 1, Integer::sum);
+    }
+
+    public void reset() {
+        countByShape.clear();
+        total = 0;
+        selects = 0;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getSelectCount() {
+        return selects;
+    }
+
+    /**
+     * 같은 모양의 select 가 가장 많이 반복된 횟수. N+1 이면 N 에 가까워진다.
+     */
+    public int getMaxRepeatedSelect() {
+        return countByShape.entrySet().stream()
+                .filter(entry -> isSelect(entry.getKey()))
+                .mapToInt(Map.Entry::getValue)
+                .max()
+                .orElse(0);
+    }
+
+    public Map<String, Integer> getCountByShape() {
+        return Collections.unmodifiableMap(countByShape);
+    }
+
+    static boolean isSelect(String sql) {
+        return sql.regionMatches(true, 0, "select", 0, 6);
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCount(total=" + total + ", selects=" + selects + ", maxRepeatedSelect=" + getMaxRepeatedSelect() + ")";
+    }
+}
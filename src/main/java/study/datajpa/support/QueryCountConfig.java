@@ -0,0 +1,25 @@
+package study.datajpa.support;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryCountConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer nPlusOneDetectorCustomizer(
+            @Value("${datajpa.n-plus-one.threshold:5}") int threshold,
+            @Value("${datajpa.n-plus-one.fail:false}") boolean fail) {
+        NPlusOneDetector detector = new NPlusOneDetector(threshold, fail);
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, detector);
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter() {
+        return new FilterRegistrationBean<>(new QueryCountFilter());
+    }
+}
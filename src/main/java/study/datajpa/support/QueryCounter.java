@@ -0,0 +1,28 @@
+package study.datajpa.support;
+
+/**
+ * 현재 스레드의 {@link QueryCount} 를 관리한다. start 와 stop 사이에 실행된 SQL 만 센다.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static QueryCount start() {
+        QueryCount count = new QueryCount();
+        CURRENT.set(count);
+        return count;
+    }
+
+    public static QueryCount current() {
+        return CURRENT.get();
+    }
+
+    public static QueryCount stop() {
+        QueryCount count = CURRENT.get();
+        CURRENT.remove();
+        return count;
+    }
+}
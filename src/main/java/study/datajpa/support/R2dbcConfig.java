@@ -0,0 +1,53 @@
+package study.datajpa.support;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * JPA 와 같은 H2 스키마를 R2DBC 로 읽는 리액티브 경로. datajpa.r2dbc.enabled=true 일 때만 켠다.
+ * 스키마와 쓰기는 계속 JPA/flyway 가 맡고, 여기서는 조회만 한다.
+ * 요청마다 H2 세션(tcp 면 소켓)을 새로 열지 않도록 r2dbc-pool 로 커넥션을 재사용한다.
+ * r2dbc-h2 는 구독한 스레드에서 쿼리를 동기로 실행하므로, 실제 논블로킹 I/O 는 드라이버가 지원할 때만 얻는다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.r2dbc.enabled", havingValue = "true")
+public class R2dbcConfig {
+
+    private static final String H2_JDBC_PREFIX = "jdbc:h2:";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool r2dbcConnectionFactory(@Value("${spring.datasource.url}") String jdbcUrl,
+                                                 @Value("${spring.datasource.username}") String username,
+                                                 @Value("${spring.datasource.password:}") String password,
+                                                 @Value("${datajpa.r2dbc.pool.initial-size:2}") int initialSize,
+                                                 @Value("${datajpa.r2dbc.pool.max-size:10}") int maxSize) {
+        if (!jdbcUrl.startsWith(H2_JDBC_PREFIX)) {
+            throw new IllegalStateException("R2DBC 경로는 H2 만 지원합니다. url = " + jdbcUrl);
+        }
+        ConnectionFactory h2 = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(jdbcUrl.substring(H2_JDBC_PREFIX.length()))
+                .username(username)
+                .password(password)
+                .build());
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(h2)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(10))
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory r2dbcConnectionFactory) {
+        return DatabaseClient.create(r2dbcConnectionFactory);
+    }
+}
@@ -0,0 +1,47 @@
+package study.datajpa.support;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * readOnly 트랜잭션은 replica 로, 나머지는 primary 로 보낸다.
+ * 같은 요청에서 쓰기 트랜잭션이 있었으면 stickyMillis 동안은 읽기도 primary 로 보내 복제 지연으로 방금 쓴 값을 못 읽는 일을 막는다.
+ * 트랜잭션 속성이 정해진 뒤에 커넥션을 얻도록 LazyConnectionDataSourceProxy 로 감싸서 써야 한다.
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    private final long stickyMillis;
+
+    public ReplicationRoutingDataSource(long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !recentlyWritten()) {
+            return REPLICA;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            LAST_WRITE.set(System.currentTimeMillis()); // 트랜잭션 밖 조회나 sticky 로 넘어온 읽기는 쓰기로 치지 않는다
+        }
+        return PRIMARY;
+    }
+
+    private boolean recentlyWritten() {
+        Long lastWrite = LAST_WRITE.get();
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < stickyMillis;
+    }
+
+    /**
+     * 요청이 끝나면 쓰기 기록을 지운다.
+     */
+    public static void clearStickiness() {
+        LAST_WRITE.remove();
+    }
+}
@@ -0,0 +1,107 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import study.datajpa.repository.Window;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+
+/**
+ * 저장소 메서드마다 실행 시간(히스토그램), 반환 행 수, 예외 수를 남긴다.
+ * 하이버네이트 통계(flush, 엔티티 로딩, 쿼리 최대 실행 시간, 2차 캐시 적중)는
+ * generate_statistics 가 켜져 있으면 스프링 부트가 hibernate.* 메트릭으로 등록한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry registry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("this(org.springframework.data.repository.Repository)" +
+            " || @within(org.springframework.stereotype.Repository)")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getTarget().getClass(), this::repositoryName);
+        String method = joinPoint.getSignature().getName();
+
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            Object result = joinPoint.proceed();
+            recordRows(repository, method, result);
+            return result;
+        } catch (Throwable e) {
+            outcome = "error";
+            Counter.builder("repository.errors")
+                    .tags("repository", repository, "method", method, "exception", e.getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("repository.invocations")
+                    .tags("repository", repository, "method", method, "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    private void recordRows(String repository, String method, Object result) {
+        long rows = rows(result);
+        if (rows < 0) {
+            return;
+        }
+        DistributionSummary.builder("repository.rows")
+                .tags("repository", repository, "method", method)
+                .register(registry)
+                .record(rows);
+    }
+
+    /**
+     * 반환 값이 담고 있는 행 수. 건수(count)나 void 처럼 행이 아닌 값은 -1.
+     */
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Window) {
+            return ((Window<?>) result).getContent().size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof BaseStream) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private String repositoryName(Class<?> targetClass) {
+        for (Class<?> type : targetClass.getInterfaces()) {
+            if (type != Repository.class && Repository.class.isAssignableFrom(type)) {
+                return type.getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(targetClass).getSimpleName();
+    }
+}
@@ -0,0 +1,102 @@
+package study.datajpa.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 낙관적 락 충돌이 나면 트랜잭션을 처음부터 다시 실행한다.
+ * 매번 새 트랜잭션(REQUIRES_NEW)과 새 영속성 컨텍스트에서 최신 version 을 다시 읽으므로 action 은 조회부터 포함해야 한다.
+ * 재시도 간격은 지수적으로 늘리되 full jitter 를 줘서 같은 행을 두고 다투는 스레드들이 다시 동시에 부딪히지 않게 한다.
+ */
+@Slf4j
+@Component
+public class RetryingTransactionExecutor {
+
+    private final TransactionTemplate tx;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public RetryingTransactionExecutor(PlatformTransactionManager transactionManager,
+                                       @Value("${datajpa.retry.max-attempts:5}") int maxAttempts,
+                                       @Value("${datajpa.retry.initial-backoff-ms:5}") long initialBackoffMillis,
+                                       @Value("${datajpa.retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("max-attempts 는 1 이상이어야 합니다. maxAttempts = " + maxAttempts);
+        }
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public <T> T execute(TransactionCallback<T> action) {
+        executions.incrementAndGet();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tx.execute(action);
+            } catch (RuntimeException e) {
+                if (!isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    failures.incrementAndGet();
+                    throw e;
+                }
+                retries.incrementAndGet();
+                log.debug("낙관적 락 충돌, 재시도합니다. attempt = {}", attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 대기 중 인터럽트되었습니다.", e);
+        }
+    }
+
+    // 저장소 안에서 flush 되면 스프링 예외로, 커밋 시점이나 EntityManager 직접 flush 면 JPA 예외로 올라온다
+    private static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+}
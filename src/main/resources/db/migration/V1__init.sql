@@ -0,0 +1,30 @@
+create sequence team_seq start with 1 increment by 50;
+create sequence member_seq start with 1 increment by 50;
+
+create table team (
+    team_id bigint not null,
+    name varchar(255),
+    primary key (team_id)
+);
+
+create table member (
+    member_id bigint not null,
+    created_date timestamp,
+    last_modified_date timestamp,
+    created_by varchar(255),
+    last_modified_by varchar(255),
+    age integer not null,
+    username varchar(255),
+    team_id bigint,
+    primary key (member_id)
+);
+
+alter table member
+    add constraint fk_member_team foreign key (team_id) references team (team_id);
+
+-- username 조회(findUser, findListByUsername, findByNames ...)
+create index idx_member_username_age on member (username, age);
+-- age 필터 + username 정렬 페이징(findByAge, findWindowByAge), bulkAgePlus
+create index idx_member_age_username on member (age, username);
+-- Team.members 로딩
+create index idx_member_team_id on member (team_id);
@@ -0,0 +1,3 @@
+-- 팀별 집계(countMembersByTeam, findAgeStatsByTeam)를 인덱스만으로 처리하고 Team.members 로딩도 겸한다
+create index idx_member_team_age on member (team_id, age);
+drop index idx_member_team_id;
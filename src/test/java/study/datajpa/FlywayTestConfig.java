@@ -0,0 +1,20 @@
+package study.datajpa;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 테스트는 매번 빈 스키마에서 시작한다. (예전 ddl-auto: create 와 같은 효과)
+ */
+@Configuration
+public class FlywayTestConfig {
+
+    @Bean
+    public FlywayMigrationStrategy cleanMigrateStrategy() {
+        return flyway -> {
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+}
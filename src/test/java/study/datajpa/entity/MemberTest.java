@@ -1,10 +1,14 @@
 package study.datajpa.entity;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.QueryCount;
+import study.datajpa.support.QueryCountExtension;
 
 import javax.persistence.EntityManager;
 
@@ -15,6 +19,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
+@ExtendWith(QueryCountExtension.class)
 class MemberTest {
 
     @Autowired
@@ -73,4 +78,67 @@ class MemberTest {
 
          //then
       }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional
+    void auditListenerFillsAuditColumns() throws Exception {
+        Member member = memberRepository.save(new Member("audited", 10));
+        em.flush();
+        LocalDateTime created = member.getCreatedDate();
+        String createdBy = member.getCreatedBy();
+        assertNotNull(created);
+        assertNotNull(createdBy);
+        assertEquals(created, member.getLastModifiedDate());
+
+        Thread.sleep(10);
+        member.setUsername("auditedUpdate"); // @PreUpdate
+        em.flush();
+        em.clear();
+
+        Member found = memberRepository.findById(member.getId()).get();
+        assertEquals(created, found.getCreatedDate());
+        assertEquals(createdBy, found.getCreatedBy());
+        assertTrue(found.getLastModifiedDate().isAfter(created));
+        assertNotNull(found.getLastModifiedBy());
+    }
+
+    @Test
+    @Transactional
+    void changeTeamDoesNotLoadMembers(QueryCount queryCount) throws Exception {
+        int small = moveOneMember(10, queryCount);
+        int large = moveOneMember(500, queryCount);
+
+        assertEquals(small, large); // 팀 크기와 상관없이 쿼리 수가 같다
+        assertTrue(large <= 3, queryCount.toString()); // 회원, 새 팀 조회 + update
+    }
+
+    private int moveOneMember(int teamSize, QueryCount queryCount) {
+        Team from = new Team("from" + teamSize);
+        Team to = new Team("to" + teamSize);
+        em.persist(from);
+        em.persist(to);
+        Member moving = null;
+        for (int i = 0; i < teamSize; i++) {
+            Member member = new Member("member" + i, 10, i == 0 ? from : to);
+            em.persist(member);
+            if (i == 0) {
+                moving = member;
+            }
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        queryCount.reset();
+        Member member = em.find(Member.class, moving.getId());
+        Team target = em.find(Team.class, to.getId());
+        member.changeTeam(target);
+        em.flush();
+        int queries = queryCount.getTotal();
+
+        assertFalse(Hibernate.isInitialized(target.getMembers()));
+        em.clear();
+        assertEquals(teamSize, em.find(Team.class, to.getId()).getMembers().size());
+        return queries;
+    }
+}
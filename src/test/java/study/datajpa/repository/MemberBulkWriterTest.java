@@ -0,0 +1,39 @@
+package study.datajpa.repository;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MemberBulkWriterTest {
+
+    @Autowired MemberBulkWriter memberBulkWriter;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired TeamJpaRepository teamJpaRepository;
+    @Autowired EntityManager em;
+
+    @Test
+    @Transactional
+    void saveAll() throws Exception {
+        Team team = teamJpaRepository.save(new Team("teamA"));
+
+        BulkWriteResult result = memberBulkWriter.saveAll(IntStream.range(0, 1000)
+                .mapToObj(i -> Member.forBulkInsert("member" + i, i % 50, team)));
+        System.out.println("result = " + result + ", rows/s = " + result.getRowsPerSecond());
+
+        assertEquals(1000, result.getRows());
+        assertEquals(1000, memberJpaRepository.count());
+        assertFalse(em.contains(team)); // 배치마다 clear 되어 영속성 컨텍스트가 비워진다
+        assertTrue(Hibernate.isInitialized(team.getMembers()));
+        assertEquals(0, team.getMembers().size()); // 적재한 회원이 호출자의 팀 컬렉션에 쌓이지 않는다
+    }
+}
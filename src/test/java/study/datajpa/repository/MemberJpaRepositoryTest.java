@@ -4,7 +4,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.entity.Member;
 
 import java.util.List;
@@ -16,6 +19,8 @@ class MemberJpaRepositoryTest {
 
     @Autowired
     MemberJpaRepository memberJpaRepository;
+    @Autowired
+    TransactionTemplate tx;
 
     @Test
     @Transactional
@@ -96,6 +101,40 @@ class MemberJpaRepositoryTest {
         assertEquals(6, totalCount);
     }
 
+    @Transactional
+    @Test
+    void pagingWithCachedCount() {
+        for (int i = 1; i <= 6; i++) {
+            memberJpaRepository.save(new Member("member" + i, 10));
+        }
+
+        Page<Member> lastPage = memberJpaRepository.findPageByAge(10, PageRequest.of(1, 4)); // 내용만으로 total 을 안다
+        assertEquals(2, lastPage.getContent().size());
+        assertEquals(6, lastPage.getTotalElements());
+
+        assertEquals(6, memberJpaRepository.totalCountByAge(10));
+        memberJpaRepository.save(new Member("member7", 10));
+        assertEquals(7, memberJpaRepository.totalCountByAge(10)); // 저장하면 캐시가 비워진다
+
+        memberJpaRepository.bulkAgePlusGreaterAndEqualThanAge(10);
+        assertEquals(0, memberJpaRepository.totalCountByAge(10)); // 벌크 연산도 캐시를 비운다
+    }
+
+    @Test
+    void cachedCountIgnoresRolledBackWrites() {
+        assertEquals(0, memberJpaRepository.totalCountByAge(7777)); // 트랜잭션 밖: 캐시에 들어간다
+
+        long inside = tx.execute(status -> {
+            memberJpaRepository.save(new Member("rollback", 7777));
+            long count = memberJpaRepository.totalCountByAge(7777);
+            status.setRollbackOnly();
+            return count;
+        });
+
+        assertEquals(1, inside);
+        assertEquals(0, memberJpaRepository.totalCountByAge(7777)); // 롤백된 행이 캐시에 남지 않는다
+    }
+
     @Test
     @Transactional
     void bulkUpdate() throws Exception {
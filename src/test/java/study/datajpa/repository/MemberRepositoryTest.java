@@ -1,30 +1,58 @@
 package study.datajpa.repository;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberReport;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.dto.UsernameOnlyDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.support.CacheNames;
+import study.datajpa.support.QueryCount;
+import study.datajpa.support.QueryCountExtension;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
+@ExtendWith(QueryCountExtension.class)
 class MemberRepositoryTest {
 
     @Autowired MemberRepository memberRepository;
     @Autowired TeamRepository teamRepository;
     @Autowired
     EntityManager em;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired AsyncMemberRepository asyncMemberRepository;
+    @Autowired CacheManager cacheManager;
+    @Autowired TransactionTemplate tx;
 
     @Test
     @Transactional
@@ -184,6 +212,32 @@ class MemberRepositoryTest {
         assertEquals("member1", content.get(0).getUsername());
     }
 
+    @Test
+    void pagingCountIsCached(QueryCount queryCount) throws Exception {
+        List<Member> saved = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            saved.add(memberRepository.save(new Member("counted" + i, 7788)));
+        }
+        try {
+            queryCount.reset();
+            assertEquals(3, memberRepository.findByAge(7788, PageRequest.of(0, 2)).getTotalElements());
+            assertEquals(3, memberRepository.findDtoByAge(7788, PageRequest.of(0, 2)).getTotalElements());
+            assertEquals(1, countQueries(queryCount)); // 두 번째는 같은 count 캐시 항목을 쓴다
+
+            saved.add(memberRepository.save(new Member("counted3", 7788))); // 회원이 바뀌면 캐시가 비워진다
+            assertEquals(4, memberRepository.findByAge(7788, PageRequest.of(0, 2)).getTotalElements());
+        } finally {
+            memberRepository.deleteAll(saved);
+        }
+    }
+
+    private static long countQueries(QueryCount queryCount) {
+        return queryCount.getCountByShape().entrySet().stream()
+                .filter(entry -> entry.getKey().contains("count("))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
     @Transactional
     @Test
     void slice() {
@@ -207,6 +261,71 @@ class MemberRepositoryTest {
         assertEquals("member1", content.get(0).getUsername());
     }
 
+    @Transactional
+    @Test
+    void keysetWindow() {
+        for (int i = 1; i <= 10; i++) {
+            memberRepository.save(new Member("member" + (i % 4), 10)); // username 중복 포함
+        }
+        memberRepository.save(new Member("other", 20));
+        memberRepository.save(new Member(null, 10)); // username 이 없는 회원도 빠지지 않아야 한다
+        memberRepository.save(new Member(null, 10));
+
+        List<Member> expected = em.createQuery("select m from Member as m where m.age = 10" +
+                " order by m.username asc nulls first, m.id asc", Member.class)
+                .getResultList();
+
+        List<Member> walked = new ArrayList<>();
+        String cursor = null;
+        int windows = 0;
+        do {
+            Window<Member> window = memberRepository.findWindowByAge(10, cursor, 3);
+            assertTrue(window.getContent().size() <= 3);
+            walked.addAll(window.getContent());
+            cursor = window.getNextCursor();
+            windows++;
+        } while (cursor != null);
+
+        assertEquals(4, windows);
+        assertEquals(expected, walked);
+
+        // 깊은 페이지도 같은 OFFSET 페이지와 동일한 내용을 돌려준다
+        Window<Member> first = memberRepository.findWindowByAge(10, null, 6);
+        Window<Member> deep = memberRepository.findWindowByAge(10, first.getNextCursor(), 3);
+        assertEquals(expected.subList(6, 9), deep.getContent());
+    }
+
+    @Test
+    @Transactional
+    void keysetWindowDoesNotUseOffset(QueryCount queryCount) {
+        for (int i = 0; i < 20; i++) {
+            memberRepository.save(new Member("member" + i, 10));
+        }
+        em.flush();
+
+        queryCount.reset();
+        String cursor = memberRepository.findWindowByAge(10, null, 5).getNextCursor();
+        assertEquals(1, queryCount.getSelectCount());
+        Map<String, Integer> secondPage = null;
+        while (cursor != null) {
+            em.clear();
+            queryCount.reset();
+            cursor = memberRepository.findWindowByAge(10, cursor, 5).getNextCursor();
+
+            // 두 번째 페이지든 마지막 페이지든 OFFSET 없는 같은 SQL 한 번
+            assertEquals(1, queryCount.getSelectCount());
+            for (String sql : queryCount.getCountByShape().keySet()) {
+                assertFalse(sql.toLowerCase().contains("offset"), sql);
+            }
+            if (secondPage == null) {
+                secondPage = new HashMap<>(queryCount.getCountByShape());
+            } else {
+                assertEquals(secondPage, queryCount.getCountByShape());
+            }
+        }
+        assertNotNull(secondPage);
+    }
+
     @Test
     @Transactional
     void bulkUpdate() throws Exception {
@@ -306,6 +425,377 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    @Transactional
+    void streamMemberCustom() throws Exception {
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("member" + i, 10, teamA));
+        }
+
+        em.flush();
+        em.clear();
+
+        List<Member> consumed = new ArrayList<>();
+        try (Stream<Member> members = memberRepository.streamMemberCustom(3)) {
+            members.forEach(consumed::add);
+        }
+
+        assertEquals(10, consumed.size());
+        for (Member member : consumed) {
+            assertFalse(em.contains(member)); // 소비한 회원은 영속성 컨텍스트에 남지 않는다
+        }
+    }
+
+    @Test
+    @Transactional
+    void statelessReport() throws Exception {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        Team sameName = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamA));
+        memberRepository.save(new Member("member3", 20, teamB));
+        memberRepository.save(new Member("member4", 30));
+        memberRepository.save(new Member("member5", 40, sameName));
+        em.flush();
+        em.clear();
+
+        MemberReport report = memberRepository.reportMembers(100);
+
+        assertEquals(5, report.getTotal());
+        assertEquals(1, report.getUnassigned());
+        assertEquals(2L, report.getMembersByTeam().get(teamA.getId()));
+        assertEquals(1L, report.getMembersByTeam().get(teamB.getId()));
+        assertEquals(1L, report.getMembersByTeam().get(sameName.getId())); // 이름이 같아도 따로 센다
+        assertEquals("teamA", report.getTeamNames().get(sameName.getId()));
+        assertEquals(2L, report.getAgeHistogram().get(10));
+
+        List<MemberDto> scanned = new ArrayList<>();
+        memberRepository.scanMembers(100, scanned::add);
+        assertEquals(5, scanned.size());
+        assertTrue(scanned.stream().anyMatch(dto -> "teamB".equals(dto.getTeamName())));
+        assertEquals(0, em.unwrap(Session.class).getStatistics().getEntityCount()); // 영속성 컨텍스트는 비어 있다
+    }
+
+    @Test
+    void statelessReportWithoutTransaction() throws Exception {
+        Team team = teamRepository.save(new Team("statelessTeam"));
+        List<Member> members = List.of(
+                memberRepository.save(new Member("stateless1", 10, team)),
+                memberRepository.save(new Member("stateless2", 10, team)));
+        try {
+            // 바깥 트랜잭션 없이 불러도 자체 readOnly 트랜잭션의 커넥션을 빌려 쓴다
+            MemberReport report = memberRepository.reportMembers(100);
+            assertEquals(2L, report.getMembersByTeam().get(team.getId()));
+            assertTrue(report.getTotal() >= 2);
+
+            List<MemberDto> scanned = new ArrayList<>();
+            memberRepository.scanMembers(100, scanned::add);
+            assertEquals(2, scanned.stream().filter(dto -> "statelessTeam".equals(dto.getTeamName())).count());
+        } finally {
+            memberRepository.deleteAll(members);
+            teamRepository.delete(team);
+        }
+    }
+
+    @Test
+    @Transactional
+    void aggregateProjections() throws Exception {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        Team empty = teamRepository.save(new Team("empty"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 19, teamA));
+        memberRepository.save(new Member("member3", 25, teamB));
+        memberRepository.save(new Member("member4", 31));
+        em.flush();
+        em.clear();
+
+        List<TeamMemberCount> counts = memberRepository.countMembersByTeam();
+        assertEquals(2, counts.size());
+        assertEquals(teamA.getId(), counts.get(0).getTeamId());
+        assertEquals(2L, counts.get(0).getMemberCount());
+
+        List<TeamAgeStats> stats = memberRepository.findAgeStatsByTeam();
+        assertEquals(14.5, stats.get(0).getAverageAge());
+        assertEquals(10, stats.get(0).getMinAge());
+        assertEquals(19, stats.get(0).getMaxAge());
+
+        List<AgeBucket> buckets = memberRepository.countByAgeBucket();
+        assertEquals(3, buckets.size());
+        assertEquals(10, buckets.get(0).getAgeFrom());
+        assertEquals(2L, buckets.get(0).getMemberCount());
+
+        List<TeamMemberCount> withNames = teamRepository.findMemberCounts();
+        assertEquals("empty", withNames.get(2).getTeamName());
+        assertEquals(0L, withNames.get(2).getMemberCount());
+    }
+
+    @Test
+    @Transactional
+    void searchReusesQueryPlan(QueryCount queryCount) throws Exception {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamA));
+        memberRepository.save(new Member("member3", 30));
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(15);
+        Page<Member> page = memberRepository.search(condition, PageRequest.of(0, 10, Sort.by("age")));
+        assertEquals(1, page.getTotalElements());
+        assertEquals("member2", page.getContent().get(0).getUsername());
+        assertTrue(Hibernate.isInitialized(page.getContent().get(0).getTeam())); // 팀은 fetch join
+
+        MemberSearchCondition teamOnly = new MemberSearchCondition();
+        teamOnly.setTeamName("teamA");
+        assertEquals(2, memberRepository.search(teamOnly, PageRequest.of(0, 1)).getTotalElements()); // count 쿼리는 fetch 없이
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        long hits = statistics.getQueryPlanCacheHitCount();
+        for (int age = 0; age < 20; age++) {
+            MemberSearchCondition same = new MemberSearchCondition(); // 값만 다른 같은 조건 조합
+            same.setAgeGoe(age);
+            same.setTeamName("team" + age);
+            queryCount.reset(); // 같은 SQL 반복은 의도한 것이므로 N+1 감지에 걸리지 않게 호출마다 센다
+            memberRepository.search(same, PageRequest.of(0, 10, Sort.by("age")));
+            assertEquals(1, queryCount.getSelectCount());
+        }
+        assertEquals(misses, statistics.getQueryPlanCacheMissCount());
+        assertTrue(statistics.getQueryPlanCacheHitCount() - hits >= 20);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> memberRepository.search(condition, PageRequest.of(0, 10, Sort.by("team.name"))));
+    }
+
+    @Test
+    void teamSecondLevelCache() throws Exception {
+        Team team = teamRepository.save(new Team("teamA")); // 커밋 시점에 2차 캐시에 적재된다
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        teamRepository.findById(team.getId());
+        teamRepository.findById(team.getId());
+
+        assertTrue(statistics.getSecondLevelCacheHitCount() - hits >= 2);
+        teamRepository.delete(team);
+    }
+
+    @Test
+    @Transactional
+    void queryCountPerCall(QueryCount queryCount) throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Team team = teamRepository.save(new Team("team" + i));
+            memberRepository.save(new Member("member" + i, 10, team));
+        }
+
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        queryCount.reset();
+        for (Member member : memberRepository.findMemberCustom()) {
+            member.getTeam().getName();
+        }
+        assertEquals(1 + 1, queryCount.getSelectCount()); // 회원 1번 + 팀은 배치 조회 1번
+        assertEquals(1, queryCount.getMaxRepeatedSelect());
+
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        queryCount.reset();
+        for (Member member : memberRepository.findMemberFetchJoin()) {
+            member.getTeam().getName();
+        }
+        assertEquals(1, queryCount.getSelectCount());
+
+        em.clear();
+
+        queryCount.reset();
+        for (Member member : memberRepository.findMemberEntityGraph()) {
+            member.getTeam().getName();
+        }
+        assertEquals(1, queryCount.getSelectCount());
+    }
+
+    @Test
+    @Transactional
+    void batchFetchTeamsAndMembers(QueryCount queryCount) throws Exception {
+        int teamCount = 150; // batch size 100 -> 추가 쿼리 2번
+        for (int i = 0; i < teamCount; i++) {
+            Team team = teamRepository.save(new Team("team" + i));
+            memberRepository.save(new Member("memberA" + i, 10, team));
+            memberRepository.save(new Member("memberB" + i, 20, team));
+        }
+
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        queryCount.reset();
+        for (Member member : memberRepository.findMemberCustom()) {
+            member.getTeam().getName();
+        }
+        assertEquals(1 + 2, queryCount.getSelectCount());
+
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        queryCount.reset();
+        for (Team team : teamRepository.findAll()) {
+            team.getMembers().size();
+        }
+        assertEquals(1 + 2, queryCount.getSelectCount());
+    }
+
+    @Test
+    @Transactional
+    void projections() throws Exception {
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        memberRepository.save(new Member("m1", 10, teamA));
+        memberRepository.save(new Member("m2", 10));
+
+        em.flush();
+        em.clear();
+
+        List<UsernameOnly> usernames = memberRepository.findProjectionsByUsername("m1");
+        assertEquals("m1", usernames.get(0).getUsername());
+
+        List<UsernameOnlyDto> usernameDtos = memberRepository.findProjectionsByUsername("m1", UsernameOnlyDto.class);
+        assertEquals("m1", usernameDtos.get(0).getUsername());
+
+        List<MemberTeamView> views = memberRepository.findMemberTeamViewByUsername("m1");
+        assertEquals("teamA", views.get(0).getTeamName());
+
+        Page<MemberDto> page = memberRepository.findDtoByAge(10, PageRequest.of(0, 10, Sort.by("username")));
+        assertEquals(2, page.getTotalElements());
+        assertEquals("teamA", page.getContent().get(0).getTeamName());
+        assertNull(page.getContent().get(1).getTeamName());
+    }
+
+    @Test
+    @Transactional
+    void repositoryMetrics() throws Exception {
+        memberRepository.save(new Member("AAA", 10));
+        memberRepository.save(new Member("AAA", 20));
+
+        memberRepository.findListByUsername("AAA");
+
+        Timer timer = meterRegistry.get("repository.invocations")
+                .tags("repository", "MemberRepository", "method", "findListByUsername")
+                .timer();
+        DistributionSummary rows = meterRegistry.get("repository.rows")
+                .tags("repository", "MemberRepository", "method", "findListByUsername")
+                .summary();
+        assertTrue(timer.count() >= 1);
+        assertTrue(rows.max() >= 2);
+    }
+
+    @Test
+    void asyncFindByUsername() throws Exception {
+        Member member = memberRepository.save(new Member("asyncMember", 10));
+
+        CompletableFuture<Optional<Member>> future = asyncMemberRepository.findOptionalMemberByUsername("asyncMember");
+
+        assertEquals(member.getId(), future.get(1, TimeUnit.SECONDS).get().getId());
+        memberRepository.delete(member);
+    }
+
+    @Test
+    void usernameCache() throws Exception {
+        Member member = memberRepository.save(new Member("cachedMember", 10));
+        Cache cache = cacheManager.getCache(CacheNames.MEMBER_IDS_BY_USERNAME);
+
+        Member found = memberRepository.findMemberByUsername("cachedMember");
+        assertEquals(List.of(member.getId()), cache.get("cachedMember").get()); // 엔티티가 아니라 id 만 담는다
+        Member foundAgain = memberRepository.findOptionalMemberByUsername("cachedMember").get(); // 같은 캐시를 쓴다
+        assertNotSame(found, foundAgain); // 엔티티는 호출마다 em.find 로 따로 얻는다
+
+        member.setAge(11);
+        memberRepository.save(member); // 수정되면 비워진다
+        assertNull(cache.get("cachedMember"));
+
+        memberRepository.findMemberByUsername("cachedMember");
+        memberRepository.deleteById(member.getId()); // 삭제되면 비워진다
+        assertNull(cache.get("cachedMember"));
+    }
+
+    @Test
+    @Transactional
+    void findListByUsernameLoadsAtOnce(QueryCount queryCount) throws Exception {
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("sameName", i));
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        queryCount.reset();
+        List<Member> members = memberRepository.findListByUsername("sameName");
+
+        assertEquals(5, members.size());
+        assertTrue(queryCount.getSelectCount() <= 2, queryCount.toString()); // id 조회 + IN 한 번 (회원마다 select 하지 않는다)
+        assertTrue(em.unwrap(Session.class).isReadOnly(members.get(0))); // 목록은 읽기 전용으로 올린다
+    }
+
+    @Test
+    @Transactional
+    void findByNullUsername() throws Exception {
+        int before = memberRepository.findListByUsername(null).size();
+        Member member = memberRepository.save(new Member(null, 10));
+        em.flush();
+
+        List<Member> found = memberRepository.findListByUsername(null); // null 은 캐시를 거치지 않고 is null 로 찾는다
+        assertEquals(before + 1, found.size());
+        assertTrue(found.contains(member));
+        if (before == 0) {
+            assertSame(member, memberRepository.findMemberByUsername(null));
+            assertSame(member, memberRepository.findOptionalMemberByUsername(null).orElseThrow());
+        }
+    }
+
+    @Test
+    void usernameCacheIgnoresRolledBackWrites() throws Exception {
+        Cache cache = cacheManager.getCache(CacheNames.MEMBER_IDS_BY_USERNAME);
+
+        tx.execute(status -> {
+            memberRepository.save(new Member("rolledBackMember", 10));
+            assertEquals(1, memberRepository.findListByUsername("rolledBackMember").size()); // 쓰기 트랜잭션 안에서는 캐시를 거치지 않는다
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertNull(cache.get("rolledBackMember"));
+        assertTrue(memberRepository.findListByUsername("rolledBackMember").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void findAllByIdIn(QueryCount queryCount) throws Exception {
+        long[] ids = new long[5];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = memberRepository.save(new Member("member" + i, 10)).getId();
+        }
+        em.flush();
+        em.clear();
+
+        queryCount.reset();
+        List<Member> members = memberRepository.findAllByIdIn(new long[]{ids[4], ids[0], ids[2], ids[0], -1L});
+
+        assertEquals(3, members.size());
+        assertEquals(ids[0], members.get(0).getId());
+        assertEquals(ids[4], members.get(2).getId());
+        assertEquals(1, queryCount.getSelectCount());
+        String sql = queryCount.getCountByShape().keySet().iterator().next();
+        assertEquals(4, sql.chars().filter(c -> c == '?').count()); // 4건 -> IN 절 4칸
+    }
+
     @Test
     @Transactional
     void callCustom() {
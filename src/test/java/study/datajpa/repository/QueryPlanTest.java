@@ -0,0 +1,107 @@
+package study.datajpa.repository;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.QueryCount;
+import study.datajpa.support.QueryCounter;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 조건이 있는 저장소 쿼리가 member 테이블을 풀 스캔하지 않는지 H2 EXPLAIN 으로 확인한다.
+ * (findAll, findMemberDto 처럼 원래 전체를 읽는 쿼리는 대상이 아니다)
+ */
+@SpringBootTest
+@Transactional
+class QueryPlanTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired EntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        for (int t = 0; t < 10; t++) {
+            Team team = teamRepository.save(new Team("team" + t));
+            for (int i = 0; i < 100; i++) {
+                memberRepository.save(new Member("member" + t + "_" + i, i % 50, team));
+            }
+        }
+        em.flush();
+        em.clear();
+        em.createNativeQuery("analyze").executeUpdate();
+    }
+
+    @Test
+    void noFullScanOnMember() throws Exception {
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("findByUsernameAndAgeGreaterThan", () -> memberRepository.findByUsernameAndAgeGreaterThan("member0_1", 0));
+        calls.put("findUser", () -> memberRepository.findUser("member0_1", 1));
+        calls.put("findListByUsername", () -> memberRepository.findListByUsername("member0_1"));
+        calls.put("findByNames", () -> memberRepository.findByNames(List.of("member0_1", "member0_2")));
+        calls.put("findByAge", () -> memberRepository.findByAge(10, PageRequest.of(1, 3, Sort.by("username"))));
+        calls.put("findWindowByAge", () -> memberRepository.findWindowByAge(10, null, 3));
+        calls.put("findByPage", () -> memberJpaRepository.findByPage(10, 3, 3));
+        calls.put("bulkAgePlus", () -> memberRepository.bulkAgePlus(45));
+        calls.put("teamMembers", () -> teamRepository.findAll().forEach(team -> team.getMembers().size()));
+
+        List<String> fullScans = new ArrayList<>();
+        for (Map.Entry<String, Runnable> call : calls.entrySet()) {
+            em.clear();
+            em.getEntityManagerFactory().getCache().evictAll();
+            QueryCount count = QueryCounter.start();
+            try {
+                call.getValue().run();
+            } finally {
+                QueryCounter.stop();
+            }
+
+            for (String sql : count.getCountByShape().keySet()) {
+                String plan = explain(sql);
+                if (plan.contains("MEMBER.tableScan") && sql.contains(" where ")) {
+                    fullScans.add(call.getKey() + " -> " + plan);
+                }
+            }
+        }
+
+        assertTrue(fullScans.isEmpty(), String.join("\n", fullScans));
+    }
+
+    private String explain(String sql) {
+        if (!sql.regionMatches(true, 0, "select", 0, 6) && !sql.regionMatches(true, 0, "update", 0, 6)) {
+            return "";
+        }
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, 1); // 실행 계획만 보므로 값은 상관없다
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1));
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.TeamDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JPA 로 커밋한 데이터를 R2DBC 경로로 읽는다.
+ */
+@SpringBootTest(properties = {
+        "datajpa.r2dbc.enabled=true",
+        "datajpa.r2dbc.fetch-size=2"
+})
+class ReactiveMemberRepositoryTest {
+
+    @Autowired ReactiveMemberRepository reactiveMemberRepository;
+    @Autowired ReactiveTeamRepository reactiveTeamRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+
+    List<Member> members = new ArrayList<>();
+    Team team;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(members);
+        teamRepository.deleteAllInBatch(List.of(team));
+    }
+
+    @Test
+    void readThroughR2dbc() throws Exception {
+        team = teamRepository.save(new Team("reactiveTeam"));
+        for (int i = 0; i < 5; i++) {
+            members.add(memberRepository.save(new Member("reactive" + i, 3000, team)));
+        }
+
+        MemberDto member = reactiveMemberRepository.findById(members.get(0).getId()).block();
+        assertEquals("reactive0", member.getUsername());
+        assertEquals("reactiveTeam", member.getTeamName());
+
+        List<MemberDto> byAge = reactiveMemberRepository.findByAge(3000).collectList().block();
+        assertEquals(5, byAge.size());
+
+        long streamed = reactiveMemberRepository.streamAll()
+                .filter(dto -> dto.getUsername().startsWith("reactive"))
+                .count()
+                .block();
+        assertEquals(5, streamed);
+
+        TeamDto found = reactiveTeamRepository.findById(team.getId()).block();
+        assertEquals("reactiveTeam", found.getName());
+    }
+}
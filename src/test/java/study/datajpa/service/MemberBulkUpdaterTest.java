@@ -0,0 +1,77 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "datajpa.bulk-update.chunk-size=3",
+        "datajpa.batch.pool-size=2"
+})
+class MemberBulkUpdaterTest {
+
+    @Autowired MemberBulkUpdater memberBulkUpdater;
+    @Autowired MemberRepository memberRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    List<Member> saved = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("alter table member drop constraint if exists chk_member_bulk_test");
+        memberRepository.deleteAllInBatch(saved); // 벌크 수정으로 version 이 올라가 있다
+    }
+
+    @Test
+    void agePlusInChunks() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            saved.add(memberRepository.save(new Member("bulk" + i, 1000 + i)));
+        }
+
+        BulkUpdateResult result = memberBulkUpdater.agePlus(1005); // bulk5 ~ bulk9
+
+        assertTrue(result.isCompleted());
+        assertEquals(5, result.getUpdatedRows());
+        assertEquals(1000, memberRepository.findById(saved.get(0).getId()).get().getAge());
+        assertEquals(1006, memberRepository.findById(saved.get(5).getId()).get().getAge());
+        assertEquals(1010, memberRepository.findById(saved.get(9).getId()).get().getAge());
+    }
+
+    @Test
+    void resumeAfterFailedChunk() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            saved.add(memberRepository.save(new Member("bulk" + i, 1000 + i)));
+        }
+        // bulk7(1007 -> 1008) 이 들어 있는 청크만 실패하게 만든다
+        jdbcTemplate.execute("alter table member add constraint chk_member_bulk_test check (age <> 1008)");
+
+        BulkUpdateResult failed = memberBulkUpdater.agePlus(1005);
+
+        assertFalse(failed.isCompleted());
+        assertNotNull(failed.getFailure());
+        assertTrue(failed.getUpdatedRows() < 5);
+        long failedId = saved.get(7).getId();
+        assertTrue(failed.getRemaining().stream()
+                .anyMatch(range -> range.getFrom() <= failedId && failedId <= range.getTo()));
+        assertEquals(1007, memberRepository.findById(saved.get(7).getId()).get().getAge()); // 실패한 청크는 롤백
+
+        jdbcTemplate.execute("alter table member drop constraint chk_member_bulk_test");
+        BulkUpdateResult resumed = memberBulkUpdater.resume(failed);
+
+        assertTrue(resumed.isCompleted());
+        assertEquals(5, failed.getUpdatedRows() + resumed.getUpdatedRows()); // 커밋된 청크는 다시 실행하지 않는다
+        for (int i = 0; i < 10; i++) {
+            int expected = i < 5 ? 1000 + i : 1001 + i;
+            assertEquals(expected, memberRepository.findById(saved.get(i).getId()).get().getAge());
+        }
+    }
+}
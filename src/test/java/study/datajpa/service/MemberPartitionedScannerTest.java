@@ -0,0 +1,53 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "datajpa.batch.pool-size=3")
+class MemberPartitionedScannerTest {
+
+    @Autowired MemberPartitionedScanner memberPartitionedScanner;
+    @Autowired MemberRepository memberRepository;
+
+    List<Member> saved = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(saved);
+    }
+
+    @Test
+    void scanInPartitions() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            saved.add(memberRepository.save(new Member("scan" + i, 2000)));
+        }
+
+        ScanResult result = memberPartitionedScanner.scan(4, 7, member -> {
+            if (member.getAge() == 2000) {
+                member.setAge(2001); // 청크 커밋 때 반영된다
+            }
+        });
+        System.out.println("result = " + result + ", rows/s = " + result.getRowsPerSecond());
+
+        assertTrue(result.isCompleted());
+        assertTrue(result.getRows() >= 100);
+        for (Member member : memberRepository.findAllById(ids())) {
+            assertEquals(2001, member.getAge());
+        }
+    }
+
+    private List<Long> ids() {
+        List<Long> ids = new ArrayList<>();
+        saved.forEach(member -> ids.add(member.getId()));
+        return ids;
+    }
+}
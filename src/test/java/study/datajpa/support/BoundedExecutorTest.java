@@ -0,0 +1,50 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedExecutorTest {
+
+    @Test
+    void rejectsImmediatelyWhenFull() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor(Executors.newFixedThreadPool(1), 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> running = executor.supply(() -> {
+                await(release);
+                return "done";
+            });
+
+            long start = System.nanoTime();
+            CompletableFuture<String> rejected = executor.supply(() -> "never");
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(rejected.isCompletedExceptionally());
+            assertTrue(elapsedMillis < 100, "요청 스레드가 기다렸다. " + elapsedMillis + "ms");
+            ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+            assertTrue(failure.getCause() instanceof RejectedExecutionException);
+
+            release.countDown();
+            assertEquals("done", running.get(1, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * 테스트마다 SQL 수를 센다. 테스트 메서드에 {@link QueryCount} 파라미터를 선언하면 주입된다.
+ * 호출 하나의 쿼리 수를 보려면 호출 직전에 {@link QueryCount#reset()} 한다.
+ */
+public class QueryCountExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        QueryCounter.start();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        QueryCounter.stop();
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == QueryCount.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return QueryCounter.current();
+    }
+}
@@ -0,0 +1,65 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberQueryService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * replica 프로필: replica 는 스키마만 같고 복제가 없어서, primary 에 쓴 회원은 replica 에서 안 보인다.
+ */
+@SpringBootTest(properties = "datajpa.datasource.routing.sticky-millis=200")
+@ActiveProfiles("replica")
+class ReplicationRoutingDataSourceTest {
+
+    @Autowired MemberQueryService memberQueryService; // @Transactional(readOnly = true)
+    @Autowired MemberRepository memberRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    Member saved;
+
+    @BeforeEach
+    void setUp() {
+        saved = memberRepository.save(new Member("replicaMember", 10));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteById(saved.getId());
+        ReplicationRoutingDataSource.clearStickiness();
+    }
+
+    @Test
+    void readOnlyTransactionReadsReplica() throws Exception {
+        ReplicationRoutingDataSource.clearStickiness();
+
+        // replica 스키마가 있으므로 조회는 성공하고, 복제가 없으니 결과는 비어 있다
+        assertTrue(memberQueryService.findUsernames("replicaMember").isEmpty());
+    }
+
+    @Test
+    void stickToPrimaryAfterWrite() throws Exception {
+        assertEquals(1, memberQueryService.findUsernames("replicaMember").size()); // 방금 쓴 요청은 primary 에서 읽는다
+
+        Thread.sleep(250);
+        assertTrue(memberQueryService.findUsernames("replicaMember").isEmpty());
+    }
+
+    @Test
+    void readOutsideTransactionDoesNotStick() throws Exception {
+        ReplicationRoutingDataSource.clearStickiness();
+
+        // 트랜잭션 밖 조회는 primary 로 가지만 쓰기로 기록하지 않는다
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from member where username = 'replicaMember'", Integer.class));
+        assertTrue(memberQueryService.findUsernames("replicaMember").isEmpty());
+    }
+}
@@ -0,0 +1,106 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 여러 스레드가 소수의 회원 나이를 동시에 올린다. 낙관적 락 + 재시도와 비관적 락 모두 갱신 손실이 없어야 하고,
+ * 처리량과 재시도 비율을 출력해서 비교한다.
+ */
+@SpringBootTest(properties = "datajpa.retry.max-attempts=50")
+class RetryingTransactionExecutorTest {
+
+    static final int THREADS = 8;
+    static final int INCREMENTS = 50;
+    static final int HOT_MEMBERS = 4;
+
+    @Autowired RetryingTransactionExecutor retryingTx;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    List<Member> saved = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(saved);
+    }
+
+    @Test
+    void optimisticRetryVsPessimisticLock() throws Exception {
+        for (int i = 0; i < HOT_MEMBERS; i++) {
+            saved.add(memberRepository.save(new Member("hot" + i, 0)));
+        }
+        int operations = THREADS * INCREMENTS;
+
+        long retriesBefore = retryingTx.getRetries();
+        long optimisticNanos = hammer(id -> retryingTx.execute(status -> {
+            Member member = memberRepository.findById(id).get();
+            member.setAge(member.getAge() + 1);
+            return null;
+        }));
+        long retries = retryingTx.getRetries() - retriesBefore;
+        assertEquals(operations, totalAge());
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long pessimisticNanos = hammer(id -> tx.execute(status -> {
+            Member member = memberRepository.findByIdForUpdate(id).get();
+            member.setAge(member.getAge() + 1);
+            return null;
+        }));
+        assertEquals(operations * 2, totalAge());
+
+        System.out.printf("optimistic  : %.0f ops/s, retry rate = %.2f (%d retries)%n",
+                operations / (optimisticNanos / 1e9), (double) retries / operations, retries);
+        System.out.printf("pessimistic : %.0f ops/s%n", operations / (pessimisticNanos / 1e9));
+    }
+
+    private long hammer(LongConsumer increment) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < INCREMENTS; i++) {
+                    increment.accept(saved.get(ThreadLocalRandom.current().nextInt(HOT_MEMBERS)).getId());
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private int totalAge() {
+        List<Long> ids = new ArrayList<>();
+        saved.forEach(member -> ids.add(member.getId()));
+        return memberRepository.findAllById(ids).stream().mapToInt(Member::getAge).sum();
+    }
+}